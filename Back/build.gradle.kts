@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.4.3"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "md.gov"
@@ -17,6 +18,14 @@ repositories {
 	mavenCentral()
 }
 
+// Load-test harness (src/loadTest): boots the application on a seeded in-memory H2 database
+val loadTest: SourceSet by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output
+	runtimeClasspath += sourceSets.main.get().output
+}
+configurations[loadTest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadTest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
 	implementation("org.springframework.boot:spring-boot-starter")
 	implementation("org.springframework.boot:spring-boot-starter-web")
@@ -30,6 +39,15 @@ dependencies {
 	implementation("org.springframework.retry:spring-retry")
 	implementation("org.springframework.boot:spring-boot-starter-aop")
 
+	// Second-level cache: JCache with Ehcache as the in-process provider
+	implementation("org.hibernate.orm:hibernate-jcache")
+	implementation("org.ehcache:ehcache::jakarta")
+
+	// Metrics (Prometheus scrape endpoint at /actuator/prometheus)
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+	implementation("org.hibernate.orm:hibernate-micrometer")
+
 	// MSSQL JDBC Driver
 	runtimeOnly("com.microsoft.sqlserver:mssql-jdbc:12.4.1.jre11")
 
@@ -48,9 +66,42 @@ dependencies {
 	// Testing
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testImplementation("org.springframework.security:spring-security-test")
+	testRuntimeOnly("com.h2database:h2")
+	"loadTestRuntimeOnly"("com.h2database:h2")
 
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// The AOT plugin ships in the Spring Boot plugin jar; applied by id it needs no separate plugin marker.
+apply(plugin = "org.springframework.boot.aot")
+
+// AOT-generated bean definitions are packaged in bootJar and used with -Dspring.aot.enabled=true.
+// @Conditional beans are decided here, at build time: pass the properties that select them, e.g.
+// ./gradlew bootJar -PaotArgs="--spring.threads.virtual.enabled=true --app.datasource.replica.url=jdbc:..."
+tasks.named<org.springframework.boot.gradle.tasks.aot.ProcessAot>("processAot") {
+	project.findProperty("aotArgs")?.toString()?.split(" ")?.filter { it.isNotBlank() }?.let { args(it) }
+}
+
+// Benchmarks: ./gradlew jmh [-PjmhIncludes=CsvExporter] [-PjmhResults=build/reports/jmh/<commit>.json]
+jmh {
+	profilers = listOf("gc")
+	resultFormat = "JSON"
+	resultsFile = project.findProperty("jmhResults")?.let { file(it) }
+		?: layout.buildDirectory.file("reports/jmh/results.json").get().asFile
+	project.findProperty("jmhIncludes")?.let { includes = listOf(it.toString()) }
+}
+
+// Load test: ./gradlew loadTest [-PloadTestArgs="--years=2000-2027 --raionOperators=180 --durationSeconds=60 --modes=platform,virtual"]
+// Unrecognised --key=value arguments are passed to the application, e.g. --app.datasource.maximumPoolSize=20
+tasks.register<JavaExec>("loadTest") {
+	group = "verification"
+	description = "Seeds an in-memory IBAN dataset and reports API throughput and latency percentiles."
+	classpath = loadTest.runtimeClasspath
+	mainClass = "iban.loadtest.LoadTestRunner"
+	maxHeapSize = "4g"
+	args = (project.findProperty("loadTestArgs")?.toString()?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()) +
+		"--reportDir=${layout.buildDirectory.dir("reports/loadtest").get().asFile}"
+}
@@ -0,0 +1,84 @@
+package iban.security;
+
+import iban.repository.entity.Role;
+import iban.repository.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT work done by JwtAuthenticationFilter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "bezKoderSecretKeybezKoderSecretKeybezKoderSecretKeybezKoderSecretKey";
+
+    private JwtTokenProvider tokenProvider;
+    private JwtTokenProvider uncachedProvider;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider(SECRET, 86400000, 10000, new SimpleMeterRegistry());
+        uncachedProvider = new JwtTokenProvider(SECRET, 86400000, 0, new SimpleMeterRegistry());
+
+        User user = User.builder()
+                .id(1L)
+                .username("operator")
+                .roles(Set.of(new Role(1L, Role.ERole.ROLE_OPERATOR)))
+                .build();
+        token = tokenProvider.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return uncachedProvider.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromJwtToken() {
+        return uncachedProvider.getUsernameFromJwtToken(token);
+    }
+
+    @Benchmark
+    public String filterPathTwoParses() {
+        return uncachedProvider.validateJwtToken(token) ? uncachedProvider.getUsernameFromJwtToken(token) : null;
+    }
+
+    // The filter before the single parse: validate, then parse again, each time decoding the key and building a parser
+    @Benchmark
+    public String filterPathTwoParsesRebuildingKey() {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Claims parseClaimsUncached() {
+        return uncachedProvider.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseClaimsCached() {
+        return tokenProvider.parseClaims(token);
+    }
+
+    @Benchmark
+    public UsernamePasswordAuthenticationToken authenticationFromClaims() {
+        return tokenProvider.getAuthentication(tokenProvider.parseClaims(token));
+    }
+}
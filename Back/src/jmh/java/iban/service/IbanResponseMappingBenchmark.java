@@ -0,0 +1,64 @@
+package iban.service;
+
+import iban.controller.dto.response.IbanResponse;
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to IbanResponse mapping used on the create/update paths, per 10k rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IbanResponseMappingBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private final IbanServiceImpl ibanService = new IbanServiceImpl(null, null, null, null, null, null);
+    private List<Iban> ibans;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EcoCode ecoCode = new EcoCode("111110", "Impozit pe venitul retinut din salariu");
+        Locality raion = new Locality();
+        raion.setCode("0100");
+        raion.setName("Chişinău");
+        raion.setIsRaion(true);
+
+        ibans = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Locality locality = new Locality();
+            locality.setCode(String.format("%04d", i));
+            locality.setName("Localitate " + i);
+            locality.setParent(raion);
+            locality.setIsRaion(false);
+
+            Iban iban = new Iban();
+            iban.setId((long) i);
+            iban.setIbanCode("MD49TRPAAA14511001030000");
+            iban.setYear(Year.of(2025));
+            iban.setEcoCode(ecoCode);
+            iban.setLocality(locality);
+            ibans.add(iban);
+        }
+    }
+
+    @Benchmark
+    public List<IbanResponse> mapIbansToResponses() {
+        List<IbanResponse> responses = new ArrayList<>(ibans.size());
+        for (Iban iban : ibans) {
+            responses.add(ibanService.mapIbanToResponse(iban));
+        }
+        return responses;
+    }
+}
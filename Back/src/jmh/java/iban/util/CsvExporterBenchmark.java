@@ -0,0 +1,47 @@
+package iban.util;
+
+import iban.controller.dto.response.IbanResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffered byte[] export against streaming the same rows to a sink.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx3g"})
+public class CsvExporterBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private final CsvExporter csvExporter = new CsvExporter();
+    private List<IbanResponse> ibans;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ibans = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            ibans.add(new IbanResponse((long) i, "MD49TRPAAA14511001030000", 2025, "111110",
+                    "Impozit pe venitul retinut din salariu, \"cota standard\"",
+                    "0111", "Sîngera", "0110", "Sectorul Botanica", 0L));
+        }
+    }
+
+    @Benchmark
+    public byte[] exportToByteArray() {
+        return csvExporter.exportIbansToCsv(ibans);
+    }
+
+    @Benchmark
+    public void streamToSink() {
+        csvExporter.writeIbansCsv(ibans.stream(), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,50 @@
+package iban.validator;
+
+import iban.controller.dto.request.IbanRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-pass scanner (with mod-97) against the previous three-regex validator.
+ * Run with the gc profiler to compare allocation per call on the success path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IbanValidatorBenchmark {
+
+    @Param({"MD49TRPAAA14511001030000", "md49trpaaa14511001030000"})
+    public String ibanCode;
+
+    private final IbanValidator scanner = new IbanValidator();
+    private final RegexIbanValidator regex = new RegexIbanValidator();
+    private IbanRequest request;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        request = new IbanRequest();
+    }
+
+    @Benchmark
+    public IbanRequest scanner() {
+        request.setIbanCode(ibanCode);
+        scanner.validate(request);
+        return request;
+    }
+
+    @Benchmark
+    public IbanRequest regex() {
+        request.setIbanCode(ibanCode);
+        regex.validate(request);
+        return request;
+    }
+
+    @Benchmark
+    public int scannerBitmask() {
+        return IbanValidator.check(ibanCode);
+    }
+}
@@ -0,0 +1,212 @@
+package iban.loadtest;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvException;
+import iban.validator.IbanValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills the schema Hibernate created with the reference data from {@code data/eco_codes.csv} and
+ * {@code data/locality.csv}, and one checksum-valid IBAN per year, eco code and locality.
+ * The output only depends on the CSV files and the year range.
+ */
+final class DatasetSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetSeeder.class);
+
+    private static final String BANK_CODE = "TRPAAA";
+    private static final int BATCH_SIZE = 10_000;
+
+    private final DataSource dataSource;
+
+    DatasetSeeder(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    Dataset seed(int yearFrom, int yearTo) {
+        List<String[]> ecoCodes = readCsv("data/eco_codes.csv");
+        Map<String, String[]> localities = new LinkedHashMap<>();
+        for (String[] row : readCsv("data/locality.csv")) {
+            localities.put(row[0], row);
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            insertEcoCodes(connection, ecoCodes);
+            List<String> raionCodes = insertLocalities(connection, localities);
+            connection.commit();
+
+            List<String> ecoCodeValues = ecoCodes.stream().map(row -> row[0]).toList();
+            List<String> localityCodes = List.copyOf(localities.keySet());
+            long rows = insertIbans(connection, ecoCodeValues, localityCodes, yearFrom, yearTo);
+            return new Dataset(ecoCodeValues, localityCodes, raionCodes, yearFrom, yearTo, rows);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Seeding the load-test database failed", e);
+        }
+    }
+
+    private static void insertEcoCodes(Connection connection, List<String[]> ecoCodes) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO eco_codes (code, label) VALUES (?, ?)")) {
+            for (String[] row : ecoCodes) {
+                insert.setString(1, row[0]);
+                insert.setString(2, row[1]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Inserts parents before children and fills the ancestor closure. Returns the raion codes,
+     * i.e. the localities without a parent.
+     */
+    private static List<String> insertLocalities(Connection connection, Map<String, String[]> localities)
+            throws SQLException {
+        Map<String, List<String>> ancestors = new LinkedHashMap<>();
+        for (String code : localities.keySet()) {
+            List<String> chain = new ArrayList<>();
+            for (String current = code; current != null && !current.isEmpty(); current = parentOf(localities, current)) {
+                chain.add(current);
+            }
+            ancestors.put(code, chain);
+        }
+
+        List<String> ordered = new ArrayList<>(localities.keySet());
+        ordered.sort(Comparator.comparingInt(code -> ancestors.get(code).size()));
+
+        List<String> raionCodes = new ArrayList<>();
+        try (PreparedStatement insertLocality = connection.prepareStatement(
+                "INSERT INTO Location (Code, Title, parent_code, is_raion) VALUES (?, ?, ?, ?)");
+             PreparedStatement insertAncestor = connection.prepareStatement(
+                     "INSERT INTO locality_ancestors (ancestor_code, locality_code, depth) VALUES (?, ?, ?)")) {
+            for (String code : ordered) {
+                String parent = parentOf(localities, code);
+                boolean raion = parent == null;
+                if (raion) {
+                    raionCodes.add(code);
+                }
+                insertLocality.setString(1, code);
+                insertLocality.setString(2, localities.get(code)[1]);
+                insertLocality.setString(3, parent);
+                insertLocality.setBoolean(4, raion);
+                insertLocality.executeUpdate();
+
+                List<String> chain = ancestors.get(code);
+                for (int depth = 0; depth < chain.size(); depth++) {
+                    insertAncestor.setString(1, chain.get(depth));
+                    insertAncestor.setString(2, code);
+                    insertAncestor.setInt(3, depth);
+                    insertAncestor.addBatch();
+                }
+            }
+            insertAncestor.executeBatch();
+        }
+        return raionCodes;
+    }
+
+    private static long insertIbans(Connection connection, List<String> ecoCodes, List<String> localityCodes,
+                                    int yearFrom, int yearTo) throws SQLException {
+        Timestamp createdDate = Timestamp.valueOf(LocalDateTime.now());
+        long sequence = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO ibans (iban_code, year, eco_code, locality_code, created_date, version) " +
+                        "VALUES (?, ?, ?, ?, ?, 0)")) {
+            for (int year = yearFrom; year <= yearTo; year++) {
+                long started = System.nanoTime();
+                for (String ecoCode : ecoCodes) {
+                    for (String localityCode : localityCodes) {
+                        insert.setString(1, ibanFor(sequence++));
+                        insert.setInt(2, year);
+                        insert.setString(3, ecoCode);
+                        insert.setString(4, localityCode);
+                        insert.setTimestamp(5, createdDate);
+                        insert.addBatch();
+                        if (sequence % BATCH_SIZE == 0) {
+                            insert.executeBatch();
+                            connection.commit();
+                        }
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+                logger.atInfo()
+                        .addKeyValue("year", year)
+                        .addKeyValue("rows", sequence)
+                        .addKeyValue("ms", (System.nanoTime() - started) / 1_000_000)
+                        .log("Seeded IBAN year");
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * A Moldovan IBAN whose last 14 digits are {@code sequence}, with ISO 13616 check digits.
+     */
+    static String ibanFor(long sequence) {
+        String bban = BANK_CODE + String.format("%014d", sequence);
+        String iban = String.format("MD%02d%s", 98 - mod97(bban + "MD00"), bban);
+        if (IbanValidator.check(iban) != IbanValidator.VALID) {
+            throw new IllegalStateException("Generated an invalid IBAN " + iban);
+        }
+        return iban;
+    }
+
+    private static int mod97(CharSequence value) {
+        int remainder = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            remainder = c >= '0' && c <= '9'
+                    ? (remainder * 10 + (c - '0')) % 97
+                    : (remainder * 100 + (c - 'A' + 10)) % 97;
+        }
+        return remainder;
+    }
+
+    private static String parentOf(Map<String, String[]> localities, String code) {
+        String[] row = localities.get(code);
+        return row == null || row.length < 3 || row[2].isBlank() ? null : row[2];
+    }
+
+    private static List<String[]> readCsv(String resource) {
+        InputStream input = DatasetSeeder.class.getClassLoader().getResourceAsStream(resource);
+        if (input == null) {
+            throw new IllegalStateException("Missing classpath resource " + resource);
+        }
+        try (CSVReader reader = new CSVReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String[]> rows = new ArrayList<>(reader.readAll());
+            rows.remove(0);
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (CsvException e) {
+            throw new IllegalStateException("Cannot parse " + resource, e);
+        }
+    }
+
+    record Dataset(List<String> ecoCodes,
+                   List<String> localityCodes,
+                   List<String> raionCodes,
+                   int yearFrom,
+                   int yearTo,
+                   long rows) {
+    }
+}
@@ -0,0 +1,61 @@
+package iban.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies of one scenario, kept exactly (a run records at most a few million samples) so the
+ * percentiles need no histogram approximation.
+ */
+final class LatencyStats {
+
+    private long[] nanos = new long[1024];
+    private int count;
+    private final Map<Integer, Integer> failuresByStatus = new TreeMap<>();
+
+    synchronized void record(long elapsedNanos, int status) {
+        if (status >= 200 && status < 400) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = elapsedNanos;
+        } else {
+            failuresByStatus.merge(status, 1, Integer::sum);
+        }
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        int failures = failuresByStatus.values().stream().mapToInt(Integer::intValue).sum();
+        return new Summary(count, failures, Map.copyOf(failuresByStatus), count / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.95),
+                percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    // Nearest-rank percentile, in milliseconds
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1e6;
+    }
+
+    /**
+     * Status 0 in {@code failuresByStatus} stands for requests that failed without a response.
+     */
+    record Summary(int ok,
+                   int failures,
+                   Map<Integer, Integer> failuresByStatus,
+                   double throughput,
+                   double p50,
+                   double p90,
+                   double p95,
+                   double p99,
+                   double p999,
+                   double max) {
+    }
+}
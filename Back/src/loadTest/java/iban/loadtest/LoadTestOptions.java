@@ -0,0 +1,77 @@
+package iban.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command-line options of {@link LoadTestRunner}. Anything it does not recognise is passed on to
+ * the application, so pool sizes and limiter settings can be varied per run.
+ */
+record LoadTestOptions(int yearFrom,
+                       int yearTo,
+                       int raionOperators,
+                       int operators,
+                       int admins,
+                       int warmupSeconds,
+                       int durationSeconds,
+                       long thinkMs,
+                       long seed,
+                       List<String> modes,
+                       Path reportDir,
+                       List<String> applicationArgs) {
+
+    static LoadTestOptions parse(String[] args) {
+        // 2000-2027 gives 28 x 362 eco codes x 100 localities, just over a million rows
+        int yearFrom = 2000;
+        int yearTo = 2027;
+        int raionOperators = 180;
+        int operators = 18;
+        int admins = 2;
+        int warmupSeconds = 15;
+        int durationSeconds = 60;
+        long thinkMs = 0;
+        long seed = 42;
+        List<String> modes = List.of("platform", "virtual");
+        Path reportDir = Path.of("build", "reports", "loadtest");
+        List<String> applicationArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "years" -> {
+                    String[] range = value.split("-");
+                    yearFrom = Integer.parseInt(range[0]);
+                    yearTo = Integer.parseInt(range[range.length - 1]);
+                }
+                case "raionOperators" -> raionOperators = Integer.parseInt(value);
+                case "operators" -> operators = Integer.parseInt(value);
+                case "admins" -> admins = Integer.parseInt(value);
+                case "warmupSeconds" -> warmupSeconds = Integer.parseInt(value);
+                case "durationSeconds" -> durationSeconds = Integer.parseInt(value);
+                case "thinkMs" -> thinkMs = Long.parseLong(value);
+                case "seed" -> seed = Long.parseLong(value);
+                case "modes" -> modes = Arrays.stream(value.split(",")).map(String::trim).toList();
+                case "reportDir" -> reportDir = Path.of(value);
+                default -> applicationArgs.add(arg);
+            }
+        }
+
+        if (yearFrom > yearTo || yearFrom < 2000 || yearTo >= 2099) {
+            throw new IllegalArgumentException("years must be a range within 2000-2098");
+        }
+        for (String mode : modes) {
+            if (!mode.equals("platform") && !mode.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown mode " + mode + " (platform, virtual)");
+            }
+        }
+        return new LoadTestOptions(yearFrom, yearTo, raionOperators, operators, admins, warmupSeconds,
+                durationSeconds, thinkMs, seed, modes, reportDir, List.copyOf(applicationArgs));
+    }
+}
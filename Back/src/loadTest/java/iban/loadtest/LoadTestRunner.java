@@ -0,0 +1,218 @@
+package iban.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import iban.IbanApplication;
+import iban.controller.dto.request.UserRequest;
+import iban.service.IbanChangedEvent;
+import iban.service.ReferenceDataCache;
+import iban.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the application once per request-execution mode (platform or virtual threads) on a
+ * freshly seeded in-memory H2 database, drives raion operators, operators and admins against
+ * it over HTTP and reports throughput and latency percentiles per scenario.
+ * <p>
+ * H2 in SQL Server mode is not SQL Server: absolute numbers only compare runs of this harness
+ * (modes, pool sizes, commits), they do not predict production latency.
+ */
+public final class LoadTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private static final String PASSWORD = "loadtest123";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Map<String, Map<Scenario, LatencyStats.Summary>> results = new LinkedHashMap<>();
+        for (String mode : options.modes()) {
+            results.put(mode, runMode(options, mode));
+        }
+
+        Files.createDirectories(options.reportDir());
+        for (Map.Entry<String, Map<Scenario, LatencyStats.Summary>> result : results.entrySet()) {
+            printSummary(result.getKey(), result.getValue());
+            writeCsv(options, result.getKey(), result.getValue());
+        }
+        if (results.size() > 1) {
+            printComparison(results);
+        }
+        logger.atInfo().addKeyValue("dir", options.reportDir().toAbsolutePath()).log("Load-test reports written");
+    }
+
+    private static Map<Scenario, LatencyStats.Summary> runMode(LoadTestOptions options, String mode)
+            throws InterruptedException {
+        List<String> applicationArgs = new ArrayList<>();
+        applicationArgs.add("--spring.threads.virtual.enabled=" + mode.equals("virtual"));
+        // A separate database per mode, so creates of one run cannot affect the next
+        applicationArgs.add("--spring.datasource.url=jdbc:h2:mem:loadtest_" + mode
+                + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE");
+        applicationArgs.addAll(options.applicationArgs());
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(IbanApplication.class)
+                .profiles("loadtest")
+                .run(applicationArgs.toArray(String[]::new))) {
+
+            long seedStarted = System.nanoTime();
+            DatasetSeeder.Dataset dataset = new DatasetSeeder(context.getBean(DataSource.class))
+                    .seed(options.yearFrom(), options.yearTo());
+            // Rows were written behind the application's back: reload the snapshot and drop derived caches
+            context.getBean(ReferenceDataCache.class).refresh();
+            context.publishEvent(new IbanChangedEvent(Set.of()));
+            logger.atInfo()
+                    .addKeyValue("mode", mode)
+                    .addKeyValue("rows", dataset.rows())
+                    .addKeyValue("seconds", (System.nanoTime() - seedStarted) / 1_000_000_000)
+                    .log("Dataset seeded");
+
+            List<OperatorSession.Role> roles = createUsers(context.getBean(UserService.class), options, dataset);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(options, dataset, roles, URI.create("http://localhost:" + port));
+        }
+    }
+
+    /**
+     * Creates the sessions' users; index i of the returned list is the role of user i.
+     */
+    private static List<OperatorSession.Role> createUsers(UserService userService, LoadTestOptions options,
+                                                          DatasetSeeder.Dataset dataset) {
+        List<OperatorSession.Role> roles = new ArrayList<>();
+        for (int i = 0; i < options.raionOperators(); i++) {
+            roles.add(OperatorSession.Role.RAION_OPERATOR);
+        }
+        for (int i = 0; i < options.operators(); i++) {
+            roles.add(OperatorSession.Role.OPERATOR);
+        }
+        for (int i = 0; i < options.admins(); i++) {
+            roles.add(OperatorSession.Role.ADMIN);
+        }
+
+        for (int i = 0; i < roles.size(); i++) {
+            UserRequest request = new UserRequest();
+            request.setUsername(username(i));
+            request.setPassword(PASSWORD);
+            request.setFullName("Load test " + i);
+            request.setEmail(username(i) + "@loadtest.local");
+            switch (roles.get(i)) {
+                case RAION_OPERATOR -> {
+                    request.setRoles(Set.of("ROLE_OPERATOR_RAION"));
+                    request.setRaionCode(raionOf(dataset, i));
+                }
+                case OPERATOR -> request.setRoles(Set.of("ROLE_OPERATOR"));
+                case ADMIN -> request.setRoles(Set.of("ROLE_ADMIN"));
+            }
+            userService.createUser(request);
+        }
+        return roles;
+    }
+
+    private static Map<Scenario, LatencyStats.Summary> drive(LoadTestOptions options, DatasetSeeder.Dataset dataset,
+                                                             List<OperatorSession.Role> roles, URI baseUri)
+            throws InterruptedException {
+        Map<Scenario, LatencyStats> stats = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new LatencyStats());
+        }
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(clients)
+                    .build();
+            long now = System.nanoTime();
+            long measureFrom = now + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+            OperatorSession.Run run = new OperatorSession.Run(http, baseUri, new ObjectMapper(), dataset, stats,
+                    new AtomicLong(), measureFrom, end, options.thinkMs());
+
+            List<Future<?>> sessions = new ArrayList<>();
+            for (int i = 0; i < roles.size(); i++) {
+                String raionCode = roles.get(i) == OperatorSession.Role.RAION_OPERATOR ? raionOf(dataset, i) : null;
+                sessions.add(clients.submit(new OperatorSession(run, username(i), PASSWORD, roles.get(i), raionCode,
+                        options.seed() + i)));
+            }
+            for (Future<?> session : sessions) {
+                try {
+                    session.get();
+                } catch (ExecutionException e) {
+                    logger.atWarn().setCause(e.getCause()).log("Load-test session failed");
+                }
+            }
+        }
+
+        Map<Scenario, LatencyStats.Summary> summaries = new EnumMap<>(Scenario.class);
+        stats.forEach((scenario, latencies) -> summaries.put(scenario, latencies.summarize(options.durationSeconds())));
+        return summaries;
+    }
+
+    private static void printSummary(String mode, Map<Scenario, LatencyStats.Summary> summaries) {
+        System.out.printf(Locale.ROOT, "%n== %s threads ==%n", mode);
+        System.out.printf(Locale.ROOT, "%-12s %9s %8s %9s %9s %9s %9s %9s %9s %9s%n",
+                "scenario", "ok", "failed", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        summaries.forEach((scenario, s) -> System.out.printf(Locale.ROOT,
+                "%-12s %9d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%s%n",
+                scenario, s.ok(), s.failures(), s.throughput(), s.p50(), s.p90(), s.p95(), s.p99(), s.p999(), s.max(),
+                s.failuresByStatus().isEmpty() ? "" : "  failures by status " + s.failuresByStatus()));
+    }
+
+    private static void printComparison(Map<String, Map<Scenario, LatencyStats.Summary>> results) {
+        List<String> modes = List.copyOf(results.keySet());
+        System.out.printf(Locale.ROOT, "%n== p99 ms / req/s by mode ==%n%-12s", "scenario");
+        modes.forEach(mode -> System.out.printf(Locale.ROOT, " %22s", mode));
+        System.out.println();
+        for (Scenario scenario : Scenario.values()) {
+            System.out.printf(Locale.ROOT, "%-12s", scenario);
+            for (String mode : modes) {
+                LatencyStats.Summary s = results.get(mode).get(scenario);
+                System.out.printf(Locale.ROOT, " %10.1f / %9.1f", s.p99(), s.throughput());
+            }
+            System.out.println();
+        }
+    }
+
+    private static void writeCsv(LoadTestOptions options, String mode, Map<Scenario, LatencyStats.Summary> summaries)
+            throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(options.reportDir().resolve(mode + ".csv")))) {
+            out.println("scenario,ok,failed,throughput,p50_ms,p90_ms,p95_ms,p99_ms,p999_ms,max_ms");
+            summaries.forEach((scenario, s) -> out.printf(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    scenario, s.ok(), s.failures(), s.throughput(), s.p50(), s.p90(), s.p95(), s.p99(), s.p999(), s.max()));
+        }
+    }
+
+    private static String username(int index) {
+        return String.format("lt-user-%04d", index);
+    }
+
+    private static String raionOf(DatasetSeeder.Dataset dataset, int index) {
+        return dataset.raionCodes().get(index % dataset.raionCodes().size());
+    }
+}
@@ -0,0 +1,214 @@
+package iban.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One simulated user: logs in, then issues its role's request mix until the run ends. Samples
+ * taken before the end of the warm-up are discarded.
+ */
+final class OperatorSession implements Runnable {
+
+    enum Role {
+        /** Morning reads of their own raion */
+        RAION_OPERATOR,
+        /** Creates and filtered reads across raions */
+        OPERATOR,
+        /** Full exports */
+        ADMIN
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(10);
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_PAGES = 3;
+
+    private final Run run;
+    private final String username;
+    private final String password;
+    private final Role role;
+    private final String raionCode;
+    private final Random random;
+    private String token;
+
+    OperatorSession(Run run, String username, String password, Role role, String raionCode, long seed) {
+        this.run = run;
+        this.username = username;
+        this.password = password;
+        this.role = role;
+        this.raionCode = raionCode;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public void run() {
+        try {
+            login();
+            while (System.nanoTime() < run.endNanos()) {
+                switch (nextScenario()) {
+                    case LOGIN -> login();
+                    case RAION_READ -> raionRead();
+                    case RAION_PAGE -> raionPages();
+                    case FILTER_PAGE -> filterPage();
+                    case CREATE -> create();
+                    case EXPORT -> export();
+                }
+                think();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Scenario nextScenario() {
+        int roll = random.nextInt(100);
+        return switch (role) {
+            case RAION_OPERATOR -> roll < 60 ? Scenario.RAION_READ : roll < 95 ? Scenario.RAION_PAGE : Scenario.LOGIN;
+            case OPERATOR -> roll < 40 ? Scenario.CREATE : roll < 95 ? Scenario.FILTER_PAGE : Scenario.LOGIN;
+            case ADMIN -> Scenario.EXPORT;
+        };
+    }
+
+    private void login() throws InterruptedException {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+        HttpResponse<String> response = send(Scenario.LOGIN, post("/api/auth/login", body, false),
+                HttpResponse.BodyHandlers.ofString());
+        if (response != null && response.statusCode() == 200) {
+            token = json(response.body()).path("token").asText();
+        }
+    }
+
+    private void raionRead() throws InterruptedException {
+        send(Scenario.RAION_READ, get("/api/ibans/raion/" + raionCode + "?year=" + readYear()),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    private void raionPages() throws InterruptedException {
+        String query = "/api/ibans/filter/page?raionCode=" + raionCode + "&year=" + readYear() + "&size=" + PAGE_SIZE;
+        String cursor = null;
+        for (int page = 0; page < MAX_PAGES; page++) {
+            String path = cursor == null ? query : query + "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8);
+            HttpResponse<String> response = send(Scenario.RAION_PAGE, get(path), HttpResponse.BodyHandlers.ofString());
+            if (response == null || response.statusCode() != 200) {
+                return;
+            }
+            JsonNode next = json(response.body()).path("nextCursor");
+            if (next.isMissingNode() || next.isNull()) {
+                return;
+            }
+            cursor = next.asText();
+        }
+    }
+
+    private void filterPage() throws InterruptedException {
+        String ecoCode = run.dataset().ecoCodes().get(random.nextInt(run.dataset().ecoCodes().size()));
+        send(Scenario.FILTER_PAGE,
+                get("/api/ibans/filter/page?ecoCode=" + ecoCode + "&year=" + readYear() + "&size=" + PAGE_SIZE),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    /**
+     * Every create gets a key no other session or seeded row uses, filling the years after the
+     * seeded range one eco code x locality grid at a time.
+     */
+    private void create() throws InterruptedException {
+        DatasetSeeder.Dataset dataset = run.dataset();
+        long n = run.createSequence().getAndIncrement();
+        int localities = dataset.localityCodes().size();
+        long keysPerYear = (long) localities * dataset.ecoCodes().size();
+        int year = dataset.yearTo() + 1 + (int) (n / keysPerYear);
+        long key = n % keysPerYear;
+        String body = "{\"ibanCode\":\"" + DatasetSeeder.ibanFor(dataset.rows() + n) + "\"," +
+                "\"year\":" + year + "," +
+                "\"ecoCode\":\"" + dataset.ecoCodes().get((int) (key / localities)) + "\"," +
+                "\"localityCode\":\"" + dataset.localityCodes().get((int) (key % localities)) + "\"}";
+        send(Scenario.CREATE, post("/api/ibans", body, true), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private void export() throws InterruptedException {
+        send(Scenario.EXPORT, request("/api/ibans/export").header("Accept-Encoding", "gzip").GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    // Mostly the current (last seeded) year, as at the start of a working day
+    private int readYear() {
+        DatasetSeeder.Dataset dataset = run.dataset();
+        return random.nextInt(5) > 0
+                ? dataset.yearTo()
+                : dataset.yearFrom() + random.nextInt(dataset.yearTo() - dataset.yearFrom() + 1);
+    }
+
+    private void think() throws InterruptedException {
+        if (run.thinkMs() > 0) {
+            Thread.sleep(random.nextLong(2 * run.thinkMs()));
+        }
+    }
+
+    private <T> HttpResponse<T> send(Scenario scenario, HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws InterruptedException {
+        long started = System.nanoTime();
+        HttpResponse<T> response = null;
+        int status;
+        try {
+            response = run.http().send(request, handler);
+            status = response.statusCode();
+        } catch (IOException e) {
+            status = 0;
+        }
+        if (started >= run.measureFromNanos() && System.nanoTime() <= run.endNanos()) {
+            run.stats().get(scenario).record(System.nanoTime() - started, status);
+        }
+        return response;
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, String json, boolean authenticated) {
+        HttpRequest.Builder builder = authenticated ? request(path) : HttpRequest.newBuilder(run.baseUri().resolve(path));
+        return builder.timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(run.baseUri().resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private JsonNode json(String body) {
+        try {
+            return run.mapper().readTree(body);
+        } catch (IOException e) {
+            return run.mapper().missingNode();
+        }
+    }
+
+    /**
+     * State shared by every session of one run.
+     */
+    record Run(HttpClient http,
+               URI baseUri,
+               ObjectMapper mapper,
+               DatasetSeeder.Dataset dataset,
+               Map<Scenario, LatencyStats> stats,
+               AtomicLong createSequence,
+               long measureFromNanos,
+               long endNanos,
+               long thinkMs) {
+    }
+}
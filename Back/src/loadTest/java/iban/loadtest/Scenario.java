@@ -0,0 +1,19 @@
+package iban.loadtest;
+
+/**
+ * The requests a session can issue; each is reported separately.
+ */
+enum Scenario {
+    /** POST /api/auth/login */
+    LOGIN,
+    /** GET /api/ibans/raion/{raionCode}?year= for the operator's own raion */
+    RAION_READ,
+    /** GET /api/ibans/filter/page by raion and year, following up to three cursors */
+    RAION_PAGE,
+    /** GET /api/ibans/filter/page by eco code and year */
+    FILTER_PAGE,
+    /** POST /api/ibans into a year after the seeded range */
+    CREATE,
+    /** GET /api/ibans/export, gzip, read to the end */
+    EXPORT
+}
@@ -0,0 +1,78 @@
+package iban.controller;
+
+import iban.controller.dto.response.CacheRegionStatsResponse;
+import iban.controller.dto.response.IbanRolloverResponse;
+import iban.controller.dto.response.LoginStatsResponse;
+import iban.controller.dto.response.ReferenceDataStatsResponse;
+import iban.security.PasswordHashingExecutor;
+import iban.service.CacheStatisticsService;
+import iban.service.IbanRolloverService;
+import iban.service.ReferenceDataCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final ReferenceDataCache referenceDataCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final CacheStatisticsService cacheStatisticsService;
+    private final IbanRolloverService ibanRolloverService;
+
+    public AdminController(ReferenceDataCache referenceDataCache, PasswordHashingExecutor passwordHashingExecutor,
+                           CacheStatisticsService cacheStatisticsService, IbanRolloverService ibanRolloverService) {
+        this.referenceDataCache = referenceDataCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.cacheStatisticsService = cacheStatisticsService;
+        this.ibanRolloverService = ibanRolloverService;
+    }
+
+    @GetMapping("/reference-data")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReferenceDataStatsResponse> getReferenceDataStats() {
+        return ResponseEntity.ok(referenceDataCache.getStats());
+    }
+
+    @PostMapping("/reference-data/refresh")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReferenceDataStatsResponse> refreshReferenceData() {
+        referenceDataCache.refresh();
+        return ResponseEntity.ok(referenceDataCache.getStats());
+    }
+
+    @GetMapping("/login-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LoginStatsResponse> getLoginStats() {
+        return ResponseEntity.ok(passwordHashingExecutor.getStats());
+    }
+
+    @GetMapping("/cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheRegionStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatisticsService.getRegionStats());
+    }
+
+    @PostMapping("/cache/clear")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> clearCache() {
+        cacheStatisticsService.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Copies the IBANs of sourceYear into targetYear (default sourceYear + 1); dryRun only reports the diff
+    @PostMapping("/rollover")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<IbanRolloverResponse> rollover(
+            @RequestParam Integer sourceYear,
+            @RequestParam(required = false) Integer targetYear,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            Authentication authentication) {
+        return ResponseEntity.ok(ibanRolloverService.rollover(sourceYear, targetYear, dryRun, authentication.getName()));
+    }
+}
@@ -0,0 +1,41 @@
+package iban.controller;
+
+import iban.controller.dto.request.IbanFilterRequest;
+import iban.controller.dto.request.IbanReassignRequest;
+import iban.controller.dto.response.IbanBulkResponse;
+import iban.service.IbanBulkService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/ibans/bulk")
+public class IbanBulkController {
+
+    private final IbanBulkService ibanBulkService;
+
+    public IbanBulkController(IbanBulkService ibanBulkService) {
+        this.ibanBulkService = ibanBulkService;
+    }
+
+    // Both operations only preview unless dryRun=false is passed explicitly
+    @PostMapping("/delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<IbanBulkResponse> deleteByFilter(
+            @RequestBody IbanFilterRequest filterRequest,
+            @RequestParam(defaultValue = "true") boolean dryRun,
+            Authentication authentication) {
+        return ResponseEntity.ok(ibanBulkService.deleteByFilter(filterRequest, dryRun, authentication.getName()));
+    }
+
+    @PostMapping("/reassign")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<IbanBulkResponse> reassign(
+            @RequestBody IbanReassignRequest reassignRequest,
+            @RequestParam(defaultValue = "true") boolean dryRun,
+            Authentication authentication) {
+        return ResponseEntity.ok(ibanBulkService.reassign(reassignRequest, dryRun, authentication.getName()));
+    }
+}
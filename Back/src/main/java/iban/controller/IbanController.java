@@ -3,9 +3,20 @@ package iban.controller;
 import iban.controller.dto.request.IbanFilterRequest;
 import iban.controller.dto.request.IbanRequest;
 import iban.controller.dto.response.EcoCodeResponse;
+import iban.controller.dto.response.IbanImportResponse;
+import iban.controller.dto.response.IbanPageResponse;
 import iban.controller.dto.response.IbanResponse;
 import iban.controller.dto.response.LocalityResponse;
+import iban.exception.CustomException;
+import iban.security.AuthenticatedUser;
+import iban.service.IbanDatasetVersions;
+import iban.service.IbanImportService;
 import iban.service.IbanService;
+import iban.util.CountingOutputStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -14,26 +25,40 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/ibans")
 public class IbanController {
+    private static final Logger logger = LoggerFactory.getLogger(IbanController.class);
+
 
     private final IbanService ibanService;
+    private final IbanImportService ibanImportService;
+    private final MeterRegistry meterRegistry;
+    private final IbanDatasetVersions datasetVersions;
 
-    public IbanController(IbanService ibanService) {
+    public IbanController(IbanService ibanService, IbanImportService ibanImportService, MeterRegistry meterRegistry,
+                          IbanDatasetVersions datasetVersions) {
         this.ibanService = ibanService;
+        this.ibanImportService = ibanImportService;
+        this.meterRegistry = meterRegistry;
+        this.datasetVersions = datasetVersions;
     }
 
 
     @GetMapping
     @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN')")
-    public ResponseEntity<List<IbanResponse>> getAllIbans() {
-        return ResponseEntity.ok(ibanService.getAllIbans());
+    public ResponseEntity<List<IbanResponse>> getAllIbans(WebRequest request) {
+        return conditional(request, datasetVersions.ibansTag(), ibanService::getAllIbans);
     }
 
     @GetMapping("/filter")
@@ -42,18 +67,37 @@ public class IbanController {
         return ResponseEntity.ok(ibanService.getIbansByFilters(filterRequest));
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<IbanPageResponse> getIbansPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(ibanService.getIbansPage(cursor, size));
+    }
+
+    @GetMapping("/filter/page")
+    @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN') or hasRole('OPERATOR_RAION')")
+    public ResponseEntity<IbanPageResponse> getIbansPageByFilters(
+            IbanFilterRequest filterRequest,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(ibanService.getIbansPageByFilters(filterRequest, cursor, size));
+    }
+
     @GetMapping("/raion/{raionCode}")
     @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN') or hasRole('OPERATOR_RAION')")
     public ResponseEntity<List<IbanResponse>> getIbansByRaion(
             @PathVariable String raionCode,
-            @RequestParam(required = false, defaultValue = "2025") Integer year) {
-        return ResponseEntity.ok(ibanService.getIbansByRaion(raionCode, year));
+            @RequestParam(required = false, defaultValue = "2025") Integer year,
+            WebRequest request) {
+        return conditional(request, datasetVersions.yearTag(year), () -> ibanService.getIbansByRaion(raionCode, year));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN') or hasRole('OPERATOR_RAION')")
     public ResponseEntity<IbanResponse> getIbanById(@PathVariable Long id) {
-        return ResponseEntity.ok(ibanService.getIbanById(id));
+        IbanResponse response = ibanService.getIbanById(id);
+        return ResponseEntity.ok().eTag(versionTag(response)).body(response);
     }
 
     @PostMapping
@@ -62,54 +106,44 @@ public class IbanController {
             @Valid @RequestBody IbanRequest ibanRequest,
             Authentication authentication
     ) {
-        try {
-
-            System.out.println("Primit IBAN Request: " + ibanRequest);
-            System.out.println("Utilizator autentificat: " +
-                    (authentication != null ? authentication.getName() : "Lipsă autentificare"));
-
-
-            if (ibanRequest == null) {
-                System.err.println("IBAN Request este null");
-                throw new IllegalArgumentException("Datele IBAN nu pot fi null");
-            }
-
-
-            if (ibanRequest.getYear() == null) {
-                System.err.println("Anul este null");
-                throw new IllegalArgumentException("Anul este obligatoriu");
-            }
-
-
-            String username = authentication != null
-                    ? authentication.getName()
-                    : "sistem";
-
-
-            IbanResponse response = ibanService.createIban(ibanRequest, username);
-
-            System.out.println("IBAN salvat cu succes: " + response);
-            return ResponseEntity.ok(response);
-
-        } catch (Exception e) {
+        if (ibanRequest == null || ibanRequest.getYear() == null) {
+            logger.atWarn()
+                    .addKeyValue("user", authentication != null ? authentication.getName() : null)
+                    .log(ibanRequest == null ? "IBAN request is null" : "IBAN request has no year");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
 
-            System.err.println("Eroare la salvare IBAN: " + e.getMessage());
-            e.printStackTrace();
+        String username = authentication != null
+                ? authentication.getName()
+                : "sistem";
 
+        // Validation, not-found and duplicate errors are CustomExceptions rendered by GlobalExceptionHandler
+        IbanResponse response = ibanService.createIban(ibanRequest, username);
+        return ResponseEntity.ok(response);
+    }
 
-            return ResponseEntity
-                    .status(HttpStatus.BAD_REQUEST)
-                    .body(null);
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<IbanImportResponse> importIbans(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            Authentication authentication) {
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+            return ResponseEntity.ok(ibanImportService.importNdjson(body, authentication.getName()));
         }
+        return ResponseEntity.ok(ibanImportService.importCsv(body, authentication.getName()));
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN')")
     public ResponseEntity<IbanResponse> updateIban(
             @PathVariable Long id,
-            @Valid @RequestBody IbanRequest ibanRequest) {
+            @Valid @RequestBody IbanRequest ibanRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        return ResponseEntity.ok(ibanService.updateIban(id, ibanRequest, authentication.getName()));
+        IbanResponse response = ibanService.updateIban(id, ibanRequest, authentication.getName(),
+                AuthenticatedUser.idOf(authentication), expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(versionTag(response)).body(response);
     }
 
     @DeleteMapping("/{id}")
@@ -121,30 +155,83 @@ public class IbanController {
 
     @GetMapping("/export")
     @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN')")
-    public ResponseEntity<byte[]> exportAllIbansAsCsv() {
-        byte[] csvBytes = ibanService.exportAllIbansAsCsv();
+    public ResponseEntity<StreamingResponseBody> exportAllIbansAsCsv(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("text/csv"));
         headers.setContentDispositionFormData("attachment", "ibans.csv");
         headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            CountingOutputStream wire = new CountingOutputStream(outputStream);
+            long rows;
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(wire, 8192);
+                rows = ibanService.exportAllIbansAsCsv(gzipStream);
+                gzipStream.finish();
+            } else {
+                rows = ibanService.exportAllIbansAsCsv(wire);
+            }
+
+            String encoding = gzip ? "gzip" : "identity";
+            meterRegistry.counter("iban.export.rows", "encoding", encoding).increment(rows);
+            meterRegistry.counter("iban.export.bytes", "encoding", encoding).increment(wire.getCount());
+        };
 
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(csvBytes);
+                .body(body);
     }
+
     @GetMapping("/eco-codes")
-    public ResponseEntity<List<EcoCodeResponse>> getAllEcoCodes() {
-        return ResponseEntity.ok(ibanService.getAllEcoCodes());
+    public ResponseEntity<List<EcoCodeResponse>> getAllEcoCodes(WebRequest request) {
+        return conditional(request, datasetVersions.referenceDataTag(), ibanService::getAllEcoCodes);
     }
 
     @GetMapping("/raions")
-    public ResponseEntity<List<LocalityResponse>> getAllRaions() {
-        return ResponseEntity.ok(ibanService.getAllRaions());
+    public ResponseEntity<List<LocalityResponse>> getAllRaions(WebRequest request) {
+        return conditional(request, datasetVersions.referenceDataTag(), ibanService::getAllRaions);
     }
 
     @GetMapping("/localities/{raionCode}")
-    public ResponseEntity<List<LocalityResponse>> getLocalitiesByRaion(@PathVariable String raionCode) {
-        return ResponseEntity.ok(ibanService.getLocalitiesByRaion(raionCode));
+    public ResponseEntity<List<LocalityResponse>> getLocalitiesByRaion(@PathVariable String raionCode,
+                                                                       WebRequest request) {
+        return conditional(request, datasetVersions.referenceDataTag(),
+                () -> ibanService.getLocalitiesByRaion(raionCode));
+    }
+
+    private static String versionTag(IbanResponse response) {
+        return String.valueOf(response.getVersion());
+    }
+
+    // If-Match carries the version from the ETag of a previous read; "*" only requires the IBAN to exist
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            // Weak or foreign tags never match a version
+            throw new CustomException("IBAN-ul a fost modificat între timp de alt utilizator", HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+
+    // The tag is read before the body is built: a write landing in between yields a tag older than the body, never newer
+    private static <T> ResponseEntity<T> conditional(WebRequest request, String etag, Supplier<T> body) {
+        CacheControl revalidate = CacheControl.noCache().cachePrivate();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(revalidate).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(revalidate).body(body.get());
     }
 }
@@ -0,0 +1,55 @@
+package iban.controller;
+
+import iban.controller.dto.response.IbanCountResponse;
+import iban.service.IbanStatisticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/ibans/stats")
+public class IbanStatisticsController {
+
+    private final IbanStatisticsService ibanStatisticsService;
+
+    public IbanStatisticsController(IbanStatisticsService ibanStatisticsService) {
+        this.ibanStatisticsService = ibanStatisticsService;
+    }
+
+    // groupBy takes any of raion, year, eco-code; two or three of them give the cross-tab in long form
+    @GetMapping
+    @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<List<IbanCountResponse>> countIbans(
+            @RequestParam(required = false) List<String> groupBy,
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo) {
+        return ResponseEntity.ok(ibanStatisticsService.countIbans(groupBy, yearFrom, yearTo));
+    }
+
+    @GetMapping("/raions")
+    @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<List<IbanCountResponse>> countByRaion(
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo) {
+        return ResponseEntity.ok(ibanStatisticsService.countIbans(List.of("raion"), yearFrom, yearTo));
+    }
+
+    @GetMapping("/years")
+    @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<List<IbanCountResponse>> countByYear(
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo) {
+        return ResponseEntity.ok(ibanStatisticsService.countIbans(List.of("year"), yearFrom, yearTo));
+    }
+
+    @GetMapping("/eco-codes")
+    @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<List<IbanCountResponse>> countByEcoCode(
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo) {
+        return ResponseEntity.ok(ibanStatisticsService.countIbans(List.of("eco-code"), yearFrom, yearTo));
+    }
+}
@@ -2,10 +2,21 @@ package iban.controller.dto.request;
 
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class IbanFilterRequest {
     private Integer year;
     private String ecoCode;
     private String raionCode;
     private String localityCode;
-}
\ No newline at end of file
+
+    // Inclusive year range, combinable with the single-value fields
+    private Integer yearFrom;
+    private Integer yearTo;
+
+    // Multi-value filters (?ecoCodes=a&ecoCodes=b or ?ecoCodes=a,b); ANDed with the single-value field
+    private List<String> ecoCodes;
+    private List<String> localityCodes;
+    private List<String> raionCodes;
+}
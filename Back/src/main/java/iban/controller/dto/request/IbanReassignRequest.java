@@ -0,0 +1,19 @@
+package iban.controller.dto.request;
+
+import lombok.Data;
+
+/**
+ * Moves IBANs from one eco code and/or locality to another, e.g. when localities are merged or an
+ * eco code is retired. Each from/to pair is optional but must be given whole; the years restrict the move.
+ */
+@Data
+public class IbanReassignRequest {
+    private String fromEcoCode;
+    private String toEcoCode;
+    private String fromLocalityCode;
+    private String toLocalityCode;
+
+    private Integer year;
+    private Integer yearFrom;
+    private Integer yearTo;
+}
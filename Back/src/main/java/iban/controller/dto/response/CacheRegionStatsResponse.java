@@ -0,0 +1,17 @@
+package iban.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheRegionStatsResponse {
+    private String region;
+    private Long hits;
+    private Long misses;
+    private Long puts;
+    private Double hitRatio;
+    private Long elementsInMemory;
+}
@@ -0,0 +1,22 @@
+package iban.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IbanBulkResponse {
+    private Boolean dryRun;
+    // Rows matching the request
+    private Long matched;
+    // Rows deleted or moved, or that would be on a dry run
+    private Long affected;
+    // Rows left in place because their new natural key is already taken
+    private Long conflicts;
+    private Integer chunks;
+    private List<IbanResponse> conflictRows;
+}
@@ -0,0 +1,16 @@
+package iban.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IbanCountResponse {
+    private String raionCode;
+    private String raionName;
+    private Integer year;
+    private String ecoCode;
+    private Long count;
+}
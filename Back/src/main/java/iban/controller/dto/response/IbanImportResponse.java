@@ -0,0 +1,17 @@
+package iban.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IbanImportResponse {
+    private Integer accepted;
+    private Integer duplicates;
+    private Integer invalid;
+    private List<IbanImportRowResponse> rejectedRows;
+}
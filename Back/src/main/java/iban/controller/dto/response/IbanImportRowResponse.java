@@ -0,0 +1,14 @@
+package iban.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IbanImportRowResponse {
+    private Long line;
+    private String status;
+    private String message;
+}
@@ -0,0 +1,16 @@
+package iban.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IbanPageResponse {
+    private List<IbanResponse> items;
+    private Integer size;
+    private String nextCursor;
+}
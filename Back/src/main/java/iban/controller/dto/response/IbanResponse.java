@@ -17,4 +17,5 @@ public class IbanResponse {
     private String localityName;
     private String raionCode;
     private String raionName;
+    private Long version;
 }
\ No newline at end of file
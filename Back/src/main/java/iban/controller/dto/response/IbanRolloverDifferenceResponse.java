@@ -0,0 +1,15 @@
+package iban.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IbanRolloverDifferenceResponse {
+    private String ecoCode;
+    private String localityCode;
+    private String sourceIbanCode;
+    private String targetIbanCode;
+}
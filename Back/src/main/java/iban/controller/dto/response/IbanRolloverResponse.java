@@ -0,0 +1,26 @@
+package iban.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IbanRolloverResponse {
+    private Integer sourceYear;
+    private Integer targetYear;
+    private Boolean dryRun;
+    // IBANs of the source year
+    private Long sourceRows;
+    // Rows inserted into the target year, or that would be inserted on a dry run
+    private Long copied;
+    // The remaining counts and the differences are computed on dry runs only
+    // Keys already present in the target year with the same IBAN code
+    private Long unchanged;
+    // Keys already present in the target year with another IBAN code; these are left untouched
+    private Long differing;
+    private List<IbanRolloverDifferenceResponse> differences;
+}
@@ -0,0 +1,19 @@
+package iban.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoginStatsResponse {
+    private Integer hashThreads;
+    private Integer queued;
+    private Integer queueCapacity;
+    private Long completed;
+    private Long rejected;
+    private Long avgQueueMillis;
+    private Long avgHashMillis;
+    private Long maxHashMillis;
+}
@@ -0,0 +1,20 @@
+package iban.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReferenceDataStatsResponse {
+    private Integer ecoCodes;
+    private Integer localities;
+    private Long hits;
+    private Long misses;
+    private Long refreshes;
+    private Instant lastRefresh;
+    private Long lastRefreshMillis;
+}
@@ -0,0 +1,123 @@
+package iban.repository;
+
+import iban.controller.dto.response.IbanRolloverDifferenceResponse;
+import iban.controller.dto.response.IbanRolloverResponse;
+import iban.repository.entity.Iban;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC batch writer for bulk IBAN inserts. Iban uses an IDENTITY id, which makes Hibernate
+ * insert row by row; going through JdbcTemplate lets the driver send the whole chunk as one batch.
+ */
+@Repository
+public class IbanBatchWriter {
+
+    // Skips rows whose (year, eco_code, locality_code) already exists; the update count is 0 for those
+    private static final String INSERT_IF_ABSENT =
+            "INSERT INTO ibans (iban_code, year, eco_code, locality_code, created_by, created_date, version) " +
+            "SELECT ?, ?, ?, ?, ?, ?, 0 " +
+            "WHERE NOT EXISTS (SELECT 1 FROM ibans WHERE year = ? AND eco_code = ? AND locality_code = ?)";
+
+    // Copies a whole year in one statement; keys already present in the target year are skipped
+    private static final String COPY_YEAR =
+            "INSERT INTO ibans (iban_code, year, eco_code, locality_code, created_by, created_date, version) " +
+            "SELECT s.iban_code, ?, s.eco_code, s.locality_code, ?, ?, 0 FROM ibans s " +
+            "WHERE s.year = ? AND NOT EXISTS " +
+            "(SELECT 1 FROM ibans t WHERE t.year = ? AND t.eco_code = s.eco_code AND t.locality_code = s.locality_code)";
+
+    // Both sides are seeks on UX_ibans_year_eco_locality
+    private static final String COPY_YEAR_PREVIEW =
+            "SELECT COUNT(*), " +
+            "COALESCE(SUM(CASE WHEN t.id IS NULL THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN t.iban_code = s.iban_code THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN t.iban_code <> s.iban_code THEN 1 ELSE 0 END), 0) " +
+            "FROM ibans s LEFT JOIN ibans t " +
+            "ON t.year = ? AND t.eco_code = s.eco_code AND t.locality_code = s.locality_code " +
+            "WHERE s.year = ?";
+
+    private static final String COPY_YEAR_DIFFERENCES =
+            "SELECT s.eco_code, s.locality_code, s.iban_code, t.iban_code " +
+            "FROM ibans s JOIN ibans t " +
+            "ON t.year = ? AND t.eco_code = s.eco_code AND t.locality_code = s.locality_code " +
+            "WHERE s.year = ? AND t.iban_code <> s.iban_code " +
+            "ORDER BY s.eco_code, s.locality_code OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IbanBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int[] insertIfAbsent(List<Iban> ibans) {
+        return jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Iban iban = ibans.get(i);
+                ps.setString(1, iban.getIbanCode());
+                ps.setInt(2, iban.getYearValue());
+                ps.setString(3, iban.getEcoCode().getCode());
+                ps.setString(4, iban.getLocality().getCode());
+                if (iban.getCreatedBy() != null) {
+                    ps.setLong(5, iban.getCreatedBy().getId());
+                } else {
+                    ps.setNull(5, Types.BIGINT);
+                }
+                ps.setTimestamp(6, Timestamp.valueOf(iban.getCreatedDate()));
+                ps.setInt(7, iban.getYearValue());
+                ps.setString(8, iban.getEcoCode().getCode());
+                ps.setString(9, iban.getLocality().getCode());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ibans.size();
+            }
+        });
+    }
+
+    /**
+     * Inserts every IBAN of {@code sourceYear} into {@code targetYear} as one INSERT…SELECT, keeping
+     * the IBAN code, eco code and locality. Returns the number of rows inserted.
+     */
+    public int copyYear(int sourceYear, int targetYear, Long createdBy, LocalDateTime createdDate) {
+        return jdbcTemplate.update(COPY_YEAR, ps -> {
+            ps.setInt(1, targetYear);
+            if (createdBy != null) {
+                ps.setLong(2, createdBy);
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setTimestamp(3, Timestamp.valueOf(createdDate));
+            ps.setInt(4, sourceYear);
+            ps.setInt(5, targetYear);
+        });
+    }
+
+    /**
+     * What {@link #copyYear} would do, without writing: counts per outcome plus up to
+     * {@code maxDifferences} keys whose target year already holds another IBAN code.
+     */
+    public IbanRolloverResponse previewCopyYear(int sourceYear, int targetYear, int maxDifferences) {
+        IbanRolloverResponse preview = jdbcTemplate.queryForObject(COPY_YEAR_PREVIEW,
+                (rs, rowNum) -> new IbanRolloverResponse(sourceYear, targetYear, true,
+                        rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), List.of()),
+                targetYear, sourceYear);
+
+        if (preview.getDiffering() > 0 && maxDifferences > 0) {
+            preview.setDifferences(jdbcTemplate.query(COPY_YEAR_DIFFERENCES,
+                    (rs, rowNum) -> new IbanRolloverDifferenceResponse(
+                            rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4)),
+                    targetYear, sourceYear, maxDifferences));
+        }
+        return preview;
+    }
+}
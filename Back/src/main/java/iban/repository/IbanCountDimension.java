@@ -0,0 +1,21 @@
+package iban.repository;
+
+/**
+ * Grouping columns of the IBAN count queries. The JPQL fragments refer to the aliases of
+ * {@link IbanCountRepositoryImpl}: {@code i} for the IBAN and {@code r} for its raion.
+ */
+public enum IbanCountDimension {
+    RAION("r.code, r.name"),
+    YEAR("i.yearValue"),
+    ECO_CODE("i.ecoCode.code");
+
+    private final String columns;
+
+    IbanCountDimension(String columns) {
+        this.columns = columns;
+    }
+
+    String columns() {
+        return columns;
+    }
+}
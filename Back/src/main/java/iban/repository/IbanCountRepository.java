@@ -0,0 +1,16 @@
+package iban.repository;
+
+import iban.controller.dto.response.IbanCountResponse;
+
+import java.util.List;
+import java.util.Set;
+
+public interface IbanCountRepository {
+
+    /**
+     * One GROUP BY statement counting IBANs per combination of {@code dimensions}, optionally
+     * restricted to {@code yearFrom..yearTo} (inclusive, either bound may be null). Columns that
+     * are not grouped stay null in the result; an empty set yields a single total row.
+     */
+    List<IbanCountResponse> countBy(Set<IbanCountDimension> dimensions, Integer yearFrom, Integer yearTo);
+}
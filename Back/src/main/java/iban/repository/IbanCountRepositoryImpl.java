@@ -0,0 +1,87 @@
+package iban.repository;
+
+import iban.controller.dto.response.IbanCountResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+public class IbanCountRepositoryImpl implements IbanCountRepository {
+
+    // The raion of a locality is its nearest ancestor flagged is_raion, as in IbanRepository.RESPONSE_SELECT;
+    // LEFT JOINs keep IBANs without one, counted under a null raion
+    private static final String RAION_JOIN = "LEFT JOIN LocalityAncestor a ON a.localityCode = i.locality.code " +
+            "AND EXISTS (SELECT 1 FROM Locality ar WHERE ar.code = a.ancestorCode AND ar.isRaion = true) " +
+            "AND NOT EXISTS (SELECT 1 FROM LocalityAncestor ca, Locality cr WHERE ca.localityCode = a.localityCode " +
+            "AND ca.depth < a.depth AND cr.code = ca.ancestorCode AND cr.isRaion = true) " +
+            "LEFT JOIN Locality r ON r.code = a.ancestorCode ";
+
+    private final EntityManager entityManager;
+
+    public IbanCountRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<IbanCountResponse> countBy(Set<IbanCountDimension> dimensions, Integer yearFrom, Integer yearTo) {
+        // Iterating an EnumSet keeps the column order stable for the row mapping below
+        Set<IbanCountDimension> grouped = dimensions.isEmpty()
+                ? EnumSet.noneOf(IbanCountDimension.class)
+                : EnumSet.copyOf(dimensions);
+
+        StringJoiner columns = new StringJoiner(", ");
+        grouped.forEach(dimension -> columns.add(dimension.columns()));
+
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        if (!grouped.isEmpty()) {
+            jpql.append(columns).append(", ");
+        }
+        jpql.append("COUNT(i) FROM Iban i ");
+        if (grouped.contains(IbanCountDimension.RAION)) {
+            jpql.append(RAION_JOIN);
+        }
+        StringJoiner conditions = new StringJoiner(" AND ", "WHERE ", " ").setEmptyValue("");
+        if (yearFrom != null) {
+            conditions.add("i.yearValue >= :yearFrom");
+        }
+        if (yearTo != null) {
+            conditions.add("i.yearValue <= :yearTo");
+        }
+        jpql.append(conditions);
+        if (!grouped.isEmpty()) {
+            jpql.append("GROUP BY ").append(columns).append(" ORDER BY ").append(columns);
+        }
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (yearFrom != null) {
+            query.setParameter("yearFrom", yearFrom);
+        }
+        if (yearTo != null) {
+            query.setParameter("yearTo", yearTo);
+        }
+
+        List<Object[]> rows = query.getResultList();
+        List<IbanCountResponse> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            IbanCountResponse count = new IbanCountResponse();
+            int column = 0;
+            if (grouped.contains(IbanCountDimension.RAION)) {
+                count.setRaionCode((String) row[column++]);
+                count.setRaionName((String) row[column++]);
+            }
+            if (grouped.contains(IbanCountDimension.YEAR)) {
+                count.setYear((Integer) row[column++]);
+            }
+            if (grouped.contains(IbanCountDimension.ECO_CODE)) {
+                count.setEcoCode((String) row[column++]);
+            }
+            count.setCount((Long) row[column]);
+            result.add(count);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,24 @@
+package iban.repository;
+
+import iban.controller.dto.response.IbanResponse;
+import iban.repository.entity.Iban;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface IbanFilterRepository {
+
+    /**
+     * One joined SELECT of {@link IbanResponse} rows matching {@code specification}, keyset-paged
+     * by id ({@code id > afterId ORDER BY id}) and capped at {@code limit} rows.
+     */
+    List<IbanResponse> findResponses(Specification<Iban> specification, long afterId, int limit);
+
+    /**
+     * Ids and years of the rows matching {@code specification}, keyset-paged like {@link #findResponses};
+     * reads only the ibans table.
+     */
+    List<IbanRowKey> findKeys(Specification<Iban> specification, long afterId, int limit);
+
+    long countMatching(Specification<Iban> specification);
+}
@@ -0,0 +1,109 @@
+package iban.repository;
+
+import iban.controller.dto.response.IbanResponse;
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import iban.repository.entity.LocalityAncestor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import org.hibernate.query.criteria.JpaEntityJoin;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.sqm.tree.SqmJoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public class IbanFilterRepositoryImpl implements IbanFilterRepository {
+
+    private final EntityManager entityManager;
+
+    public IbanFilterRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Criteria form of IbanRepository.RESPONSE_SELECT
+    @Override
+    public List<IbanResponse> findResponses(Specification<Iban> specification, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<IbanResponse> query = cb.createQuery(IbanResponse.class);
+        Root<Iban> iban = query.from(Iban.class);
+        Join<Iban, EcoCode> ecoCode = iban.join(Iban.NATURAL_ID_ECO_CODE);
+        Join<Iban, Locality> locality = iban.join(Iban.NATURAL_ID_LOCALITY);
+        // Entity joins (the raion ancestor) are a Hibernate extension of the JPA criteria API
+        JpaRoot<Iban> hibernateRoot = (JpaRoot<Iban>) iban;
+        JpaEntityJoin<LocalityAncestor> ancestor = hibernateRoot.join(LocalityAncestor.class, SqmJoinType.LEFT);
+        Subquery<Integer> isRaion = query.subquery(Integer.class);
+        Root<Locality> candidate = isRaion.from(Locality.class);
+        isRaion.select(cb.literal(1)).where(
+                cb.equal(candidate.get("code"), ancestor.get("ancestorCode")),
+                cb.isTrue(candidate.get("isRaion")));
+        // Only the nearest raion ancestor, so nested raion flags do not duplicate rows
+        Subquery<Integer> closerRaion = query.subquery(Integer.class);
+        Root<LocalityAncestor> closer = closerRaion.from(LocalityAncestor.class);
+        Root<Locality> closerLocality = closerRaion.from(Locality.class);
+        closerRaion.select(cb.literal(1)).where(
+                cb.equal(closer.get("localityCode"), ancestor.get("localityCode")),
+                cb.lessThan(closer.get("depth"), ancestor.<Integer>get("depth")),
+                cb.equal(closerLocality.get("code"), closer.get("ancestorCode")),
+                cb.isTrue(closerLocality.get("isRaion")));
+        ancestor.on(cb.equal(ancestor.get("localityCode"), locality.get("code")), cb.exists(isRaion),
+                cb.not(cb.exists(closerRaion)));
+        JpaEntityJoin<Locality> raion = hibernateRoot.join(Locality.class, SqmJoinType.LEFT);
+        raion.on(cb.equal(raion.get("code"), ancestor.get("ancestorCode")));
+        Expression<String> raionCode = raion.get("code");
+        Expression<String> raionName = raion.get("name");
+
+        query.select(cb.construct(IbanResponse.class,
+                iban.get("id"),
+                iban.get("ibanCode"),
+                iban.get(Iban.NATURAL_ID_YEAR),
+                ecoCode.get("code"),
+                ecoCode.get("label"),
+                locality.get("code"),
+                locality.get("name"),
+                raionCode,
+                raionName,
+                iban.get("version")));
+
+        Predicate keyset = cb.greaterThan(iban.get("id"), afterId);
+        Predicate filter = specification != null ? specification.toPredicate(iban, query, cb) : null;
+        query.where(filter != null ? cb.and(filter, keyset) : keyset);
+        query.orderBy(cb.asc(iban.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<IbanRowKey> findKeys(Specification<Iban> specification, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<IbanRowKey> query = cb.createQuery(IbanRowKey.class);
+        Root<Iban> iban = query.from(Iban.class);
+        query.select(cb.construct(IbanRowKey.class, iban.get("id"), iban.get(Iban.NATURAL_ID_YEAR)));
+
+        Predicate keyset = cb.greaterThan(iban.get("id"), afterId);
+        Predicate filter = specification != null ? specification.toPredicate(iban, query, cb) : null;
+        query.where(filter != null ? cb.and(filter, keyset) : keyset);
+        query.orderBy(cb.asc(iban.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countMatching(Specification<Iban> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Iban> iban = query.from(Iban.class);
+        query.select(cb.count(iban));
+
+        Predicate filter = specification != null ? specification.toPredicate(iban, query, cb) : null;
+        if (filter != null) {
+            query.where(filter);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,14 @@
+package iban.repository;
+
+import iban.repository.entity.Iban;
+
+import java.time.Year;
+import java.util.Optional;
+
+/**
+ * Lookups by the (year, eco code, locality) natural id, answered from the natural-id and
+ * entity caches when the entry is present there.
+ */
+public interface IbanNaturalIdRepository {
+    Optional<Iban> findByNaturalId(Year year, String ecoCode, String localityCode);
+}
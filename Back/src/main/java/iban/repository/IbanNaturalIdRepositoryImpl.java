@@ -0,0 +1,30 @@
+package iban.repository;
+
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.time.Year;
+import java.util.Optional;
+
+public class IbanNaturalIdRepositoryImpl implements IbanNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    public IbanNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<Iban> findByNaturalId(Year year, String ecoCode, String localityCode) {
+        Session session = entityManager.unwrap(Session.class);
+        // References are never initialised here; only their ids take part in the natural id
+        return session.byNaturalId(Iban.class)
+                .using(Iban.NATURAL_ID_YEAR, year.getValue())
+                .using(Iban.NATURAL_ID_ECO_CODE, session.getReference(EcoCode.class, ecoCode))
+                .using(Iban.NATURAL_ID_LOCALITY, session.getReference(Locality.class, localityCode))
+                .loadOptional();
+    }
+}
@@ -1,19 +1,40 @@
 package iban.repository;
 
+import iban.controller.dto.response.IbanResponse;
 import iban.repository.entity.EcoCode;
 import iban.repository.entity.Iban;
 import iban.repository.entity.Locality;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Year;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface IbanRepository extends JpaRepository<Iban, Long> {
+public interface IbanRepository extends JpaRepository<Iban, Long>, IbanNaturalIdRepository, IbanFilterRepository,
+        IbanCountRepository, IbanUpdateRepository {
+
+    // Builds IbanResponse rows in one joined SELECT; the raion is the nearest isRaion ancestor from the
+    // locality closure (the locality itself when it is a raion), as in IbanServiceImpl.mapIbanToResponse
+    String RESPONSE_SELECT = "SELECT new iban.controller.dto.response.IbanResponse(" +
+            "i.id, i.ibanCode, i.yearValue, e.code, e.label, l.code, l.name, r.code, r.name, i.version) " +
+            "FROM Iban i JOIN i.ecoCode e JOIN i.locality l " +
+            "LEFT JOIN LocalityAncestor ra ON ra.localityCode = l.code " +
+            "AND EXISTS (SELECT 1 FROM Locality rr WHERE rr.code = ra.ancestorCode AND rr.isRaion = true) " +
+            "AND NOT EXISTS (SELECT 1 FROM LocalityAncestor ca, Locality cr WHERE ca.localityCode = ra.localityCode " +
+            "AND ca.depth < ra.depth AND cr.code = ca.ancestorCode AND cr.isRaion = true) " +
+            "LEFT JOIN Locality r ON r.code = ra.ancestorCode ";
+
+    // Restricts RESPONSE_SELECT to the whole raion subtree through the locality ancestor closure
+    String RAION_SUBTREE_JOIN = "JOIN LocalityAncestor a ON a.localityCode = l.code AND a.ancestorCode = :raionCode ";
 
     // Find all IBANs for a specific year
     @Query("SELECT i FROM Iban i WHERE i.yearValue = :#{#year.getValue()}")
@@ -33,9 +54,59 @@ public interface IbanRepository extends JpaRepository<Iban, Long> {
             @Param("ecoCode") String ecoCode,
             @Param("localityCode") String localityCode);
 
-    // Find IBANs by year and raion code
-    @Query("SELECT i FROM Iban i WHERE i.yearValue = :#{#year.getValue()} AND (i.locality.code = :raionCode OR i.locality.parent.code = :raionCode)")
+    // Find IBANs by year and raion code, at any depth below the raion
+    @Query("SELECT i FROM Iban i JOIN LocalityAncestor a ON a.localityCode = i.locality.code WHERE i.yearValue = :#{#year.getValue()} AND a.ancestorCode = :raionCode")
     List<Iban> findByYearAndRaionCode(
             @Param("year") Year year,
             @Param("raionCode") String raionCode);
-}
\ No newline at end of file
+
+    @Query("SELECT i.yearValue AS yearValue, i.version AS version FROM Iban i WHERE i.id = :id")
+    Optional<IbanVersionView> findVersionById(@Param("id") Long id);
+
+    @Query(RESPONSE_SELECT + "WHERE i.id = :id")
+    Optional<IbanResponse> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE_SELECT + "ORDER BY i.id")
+    List<IbanResponse> findAllResponses();
+
+    // Forward-only cursor for exports; must be consumed and closed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(RESPONSE_SELECT + "ORDER BY i.id")
+    Stream<IbanResponse> streamAllResponses();
+
+    @Query(RESPONSE_SELECT + "WHERE i.yearValue = :#{#year.getValue()} ORDER BY i.id")
+    List<IbanResponse> findResponsesByYear(@Param("year") Year year);
+
+    @Query(RESPONSE_SELECT + "WHERE i.yearValue = :#{#year.getValue()} AND e.code = :ecoCode AND l.code = :localityCode")
+    Optional<IbanResponse> findResponseByYearAndEcoCodeAndLocalityCode(
+            @Param("year") Year year,
+            @Param("ecoCode") String ecoCode,
+            @Param("localityCode") String localityCode);
+
+    @Query(RESPONSE_SELECT + RAION_SUBTREE_JOIN + "WHERE i.yearValue = :#{#year.getValue()} ORDER BY i.id")
+    List<IbanResponse> findResponsesByYearAndRaionCode(
+            @Param("year") Year year,
+            @Param("raionCode") String raionCode);
+
+    // Keyset pages ordered by id; callers pass the last id seen and a limit of size + 1
+    @Query(RESPONSE_SELECT + "WHERE i.id > :afterId ORDER BY i.id")
+    List<IbanResponse> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE i.yearValue = :#{#year.getValue()} AND i.id > :afterId ORDER BY i.id")
+    List<IbanResponse> findPageByYearAfter(
+            @Param("year") Year year,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    @Query(RESPONSE_SELECT + RAION_SUBTREE_JOIN + "WHERE i.yearValue = :#{#year.getValue()} AND i.id > :afterId ORDER BY i.id")
+    List<IbanResponse> findPageByYearAndRaionCodeAfter(
+            @Param("year") Year year,
+            @Param("raionCode") String raionCode,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    interface IbanVersionView {
+        Integer getYearValue();
+        Long getVersion();
+    }
+}
@@ -0,0 +1,8 @@
+package iban.repository;
+
+/**
+ * Id and fiscal year of an IBAN row; enough to address it in a bulk statement and to tell
+ * listeners which years changed.
+ */
+public record IbanRowKey(Long id, Integer year) {
+}
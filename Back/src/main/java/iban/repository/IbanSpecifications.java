@@ -0,0 +1,124 @@
+package iban.repository;
+
+import iban.controller.dto.request.IbanFilterRequest;
+import iban.repository.entity.Iban;
+import iban.repository.entity.LocalityAncestor;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Builds the WHERE clause for {@link IbanFilterRequest} from whichever fields are present.
+ * Every predicate is a sargable comparison on an ibans column (eco and locality compare the
+ * foreign key, no join needed); raions go through a semi-join on the ancestor closure.
+ */
+public final class IbanSpecifications {
+
+    private IbanSpecifications() {
+    }
+
+    public static Specification<Iban> matching(IbanFilterRequest filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.getYear() != null) {
+                predicates.add(cb.equal(root.get(Iban.NATURAL_ID_YEAR), filter.getYear()));
+            }
+            if (filter.getYearFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get(Iban.NATURAL_ID_YEAR), filter.getYearFrom()));
+            }
+            if (filter.getYearTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get(Iban.NATURAL_ID_YEAR), filter.getYearTo()));
+            }
+
+            ecoCodes(filter).ifPresent(codes -> predicates.add(codes.isEmpty()
+                    ? cb.disjunction()
+                    : root.get(Iban.NATURAL_ID_ECO_CODE).get("code").in(codes)));
+
+            localityCodes(filter).ifPresent(codes -> predicates.add(codes.isEmpty()
+                    ? cb.disjunction()
+                    : root.get(Iban.NATURAL_ID_LOCALITY).get("code").in(codes)));
+
+            raionCodes(filter).ifPresent(codes -> {
+                if (codes.isEmpty()) {
+                    predicates.add(cb.disjunction());
+                    return;
+                }
+                Subquery<String> subtree = query.subquery(String.class);
+                Root<LocalityAncestor> ancestor = subtree.from(LocalityAncestor.class);
+                subtree.select(ancestor.get("localityCode"))
+                        .where(ancestor.get("ancestorCode").in(codes));
+                predicates.add(root.get(Iban.NATURAL_ID_LOCALITY).get("code").in(subtree));
+            });
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Rows whose natural key would collide after moving them to {@code ecoCode} and/or
+     * {@code localityCode} (null keeps the row's own value).
+     */
+    public static Specification<Iban> targetKeyTaken(String ecoCode, String localityCode) {
+        return (root, query, cb) -> {
+            Subquery<Long> target = query.subquery(Long.class);
+            Root<Iban> other = target.from(Iban.class);
+            target.select(other.get("id")).where(
+                    cb.equal(other.get(Iban.NATURAL_ID_YEAR), root.get(Iban.NATURAL_ID_YEAR)),
+                    cb.equal(other.get(Iban.NATURAL_ID_ECO_CODE).get("code"), ecoCode != null
+                            ? cb.literal(ecoCode)
+                            : root.get(Iban.NATURAL_ID_ECO_CODE).get("code")),
+                    cb.equal(other.get(Iban.NATURAL_ID_LOCALITY).get("code"), localityCode != null
+                            ? cb.literal(localityCode)
+                            : root.get(Iban.NATURAL_ID_LOCALITY).get("code")));
+            return cb.exists(target);
+        };
+    }
+
+    public static boolean isEmpty(IbanFilterRequest filter) {
+        return filter.getYear() == null && filter.getYearFrom() == null && filter.getYearTo() == null
+                && ecoCodes(filter).isEmpty() && localityCodes(filter).isEmpty() && raionCodes(filter).isEmpty();
+    }
+
+    public static Optional<Set<String>> ecoCodes(IbanFilterRequest filter) {
+        return restrict(filter.getEcoCode(), filter.getEcoCodes());
+    }
+
+    public static Optional<Set<String>> localityCodes(IbanFilterRequest filter) {
+        return restrict(filter.getLocalityCode(), filter.getLocalityCodes());
+    }
+
+    public static Optional<Set<String>> raionCodes(IbanFilterRequest filter) {
+        return restrict(filter.getRaionCode(), filter.getRaionCodes());
+    }
+
+    /**
+     * The codes a dimension is restricted to, or empty when neither field is given. The single
+     * value and the list are ANDed like every other filter field, so giving both keeps the single
+     * value only if the list contains it; an empty set then means nothing can match.
+     */
+    private static Optional<Set<String>> restrict(String single, Collection<String> many) {
+        Set<String> listed = new LinkedHashSet<>();
+        if (many != null) {
+            for (String code : many) {
+                if (code != null && !code.isBlank()) {
+                    listed.add(code.trim());
+                }
+            }
+        }
+
+        if (single == null || single.isBlank()) {
+            return listed.isEmpty() ? Optional.empty() : Optional.of(listed);
+        }
+        String code = single.trim();
+        return Optional.of(listed.isEmpty() || listed.contains(code) ? Set.of(code) : Set.of());
+    }
+}
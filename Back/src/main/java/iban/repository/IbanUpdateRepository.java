@@ -0,0 +1,28 @@
+package iban.repository;
+
+import java.util.Collection;
+
+public interface IbanUpdateRepository {
+
+    /**
+     * Rewrites one IBAN in a single UPDATE and increments its version. The row is only touched when it
+     * is still in {@code expectedYear} with {@code expectedVersion}; a null expectation is not checked.
+     * The editor ({@code updatedBy}, a user id) becomes {@code created_by}.
+     *
+     * @return 1 when the row was updated, 0 when it is gone or no longer matches the expectations
+     */
+    int updateIfUnchanged(Long id, Integer expectedYear, Long expectedVersion,
+                          String ibanCode, int year, String ecoCode, String localityCode, Long updatedBy);
+
+    /**
+     * Moves the given rows from {@code fromEcoCode}/{@code fromLocalityCode} to {@code toEcoCode}/{@code toLocalityCode}
+     * in one UPDATE (null leaves that column alone). Rows that no longer match the source codes, or whose
+     * new natural key already exists, are skipped.
+     *
+     * @return the number of rows moved
+     */
+    int reassign(Collection<Long> ids, String fromEcoCode, String toEcoCode,
+                 String fromLocalityCode, String toLocalityCode);
+
+    int deleteByIds(Collection<Long> ids);
+}
@@ -0,0 +1,101 @@
+package iban.repository;
+
+import iban.repository.entity.Iban;
+import jakarta.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Collection;
+
+public class IbanUpdateRepositoryImpl implements IbanUpdateRepository {
+
+    private static final String UPDATE =
+            "UPDATE ibans SET iban_code = :ibanCode, year = :year, eco_code = :ecoCode, " +
+            "locality_code = :localityCode, version = version + 1, created_by = :updatedBy " +
+            "WHERE id = :id";
+
+    private final EntityManager entityManager;
+
+    public IbanUpdateRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateIfUnchanged(Long id, Integer expectedYear, Long expectedVersion,
+                                 String ibanCode, int year, String ecoCode, String localityCode, Long updatedBy) {
+        StringBuilder sql = new StringBuilder(UPDATE);
+        if (expectedYear != null) {
+            sql.append(" AND year = :expectedYear");
+        }
+        if (expectedVersion != null) {
+            sql.append(" AND version = :expectedVersion");
+        }
+
+        NativeQuery<?> query = synchronizedQuery(sql.toString());
+        query.setParameter("ibanCode", ibanCode);
+        query.setParameter("year", year);
+        query.setParameter("ecoCode", ecoCode);
+        query.setParameter("localityCode", localityCode);
+        query.setParameter("updatedBy", updatedBy);
+        query.setParameter("id", id);
+        if (expectedYear != null) {
+            query.setParameter("expectedYear", expectedYear);
+        }
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int reassign(Collection<Long> ids, String fromEcoCode, String toEcoCode,
+                        String fromLocalityCode, String toLocalityCode) {
+        StringBuilder sql = new StringBuilder("UPDATE ibans SET ");
+        if (toEcoCode != null) {
+            sql.append("eco_code = :toEcoCode, ");
+        }
+        if (toLocalityCode != null) {
+            sql.append("locality_code = :toLocalityCode, ");
+        }
+        sql.append("version = version + 1 WHERE id IN (:ids)");
+        if (fromEcoCode != null) {
+            sql.append(" AND eco_code = :fromEcoCode");
+        }
+        if (fromLocalityCode != null) {
+            sql.append(" AND locality_code = :fromLocalityCode");
+        }
+        sql.append(" AND NOT EXISTS (SELECT 1 FROM ibans t WHERE t.year = ibans.year")
+                .append(" AND t.eco_code = ").append(toEcoCode != null ? ":toEcoCode" : "ibans.eco_code")
+                .append(" AND t.locality_code = ").append(toLocalityCode != null ? ":toLocalityCode" : "ibans.locality_code")
+                .append(")");
+
+        NativeQuery<?> query = synchronizedQuery(sql.toString());
+        query.setParameterList("ids", ids);
+        if (toEcoCode != null) {
+            query.setParameter("toEcoCode", toEcoCode);
+        }
+        if (toLocalityCode != null) {
+            query.setParameter("toLocalityCode", toLocalityCode);
+        }
+        if (fromEcoCode != null) {
+            query.setParameter("fromEcoCode", fromEcoCode);
+        }
+        if (fromLocalityCode != null) {
+            query.setParameter("fromLocalityCode", fromLocalityCode);
+        }
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        NativeQuery<?> query = synchronizedQuery("DELETE FROM ibans WHERE id IN (:ids)");
+        query.setParameterList("ids", ids);
+        return query.executeUpdate();
+    }
+
+    // Declaring the entity limits the second-level cache invalidation to the iban regions
+    private NativeQuery<?> synchronizedQuery(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Iban.class);
+    }
+}
@@ -12,6 +12,9 @@ public interface LocalityRepository extends JpaRepository<Locality, String> {
     @Query("SELECT l FROM Locality l WHERE l.isRaion = true")
     List<Locality> findAllRaions();
 
+    @Query("SELECT l FROM Locality l LEFT JOIN FETCH l.parent")
+    List<Locality> findAllWithParent();
+
     @Query("SELECT l FROM Locality l WHERE l.parent.code = :raionCode")
     List<Locality> findAllByRaionCode(String raionCode);
 
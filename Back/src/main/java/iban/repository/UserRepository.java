@@ -2,8 +2,13 @@ package iban.repository;
 
 import iban.repository.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +16,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id AND u.password = :previousPassword")
+    int updatePassword(@Param("id") Long id,
+                       @Param("previousPassword") String previousPassword,
+                       @Param("password") String password);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion FROM User u")
+    List<TokenVersionView> findAllTokenVersions();
+
+    interface TokenVersionView {
+        Long getId();
+        Integer getTokenVersion();
+    }
 }
\ No newline at end of file
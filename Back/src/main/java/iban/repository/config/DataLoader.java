@@ -1,7 +1,9 @@
 package iban.repository.config;
 
+import iban.repository.LocalityRepository;
 import iban.repository.RoleRepository;
 import iban.repository.UserRepository;
+import iban.repository.entity.Locality;
 import iban.repository.entity.Role;
 import iban.repository.entity.User;
 import org.slf4j.Logger;
@@ -12,6 +14,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
 @Component
@@ -22,11 +26,15 @@ public class DataLoader implements CommandLineRunner {
 
     private final RoleRepository roleRepository;
 
+    private final LocalityRepository localityRepository;
+
     private final PasswordEncoder passwordEncoder;
 
-    public DataLoader(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    public DataLoader(UserRepository userRepository, RoleRepository roleRepository,
+                      LocalityRepository localityRepository, PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.localityRepository = localityRepository;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -96,22 +104,34 @@ public class DataLoader implements CommandLineRunner {
         );
     }
 
+    /**
+     * Creates the user, or brings an existing one back to the defaults. A user whose profile and
+     * password already match is left untouched: the stored hash is only verified, never re-encoded.
+     */
     private void createOrUpdateUser(String username, String password, String fullName,
                                     String email, Role.ERole roleType, String raionCode) {
-        User user;
-        boolean isNewUser = false;
-
+        Optional<User> existing = userRepository.findByUsername(username);
+        boolean isNewUser = existing.isEmpty();
+        User user = existing.orElseGet(User::new);
+
+        boolean passwordCurrent = !isNewUser
+                && passwordEncoder.matches(password, user.getPassword())
+                && !passwordEncoder.upgradeEncoding(user.getPassword());
+        String currentRaionCode = user.getRaion() != null ? user.getRaion().getCode() : null;
+        boolean raionCurrent = Objects.equals(raionCode, currentRaionCode);
+        if (!isNewUser && passwordCurrent && raionCurrent
+                && fullName.equals(user.getFullName())
+                && email.equals(user.getEmail())) {
+            logger.info("User '{}' is up to date", username);
+            return;
+        }
 
-        if (userRepository.findByUsername(username).isEmpty()) {
-            user = new User();
+        if (isNewUser) {
             user.setUsername(username);
-            isNewUser = true;
-        } else {
-            user = userRepository.findByUsername(username).get();
         }
-
-
-        user.setPassword(passwordEncoder.encode(password));
+        if (!passwordCurrent) {
+            user.setPassword(passwordEncoder.encode(password));
+        }
         user.setFullName(fullName);
         user.setEmail(email);
 
@@ -125,9 +145,17 @@ public class DataLoader implements CommandLineRunner {
             user.setRoles(roles);
         }
 
-        if (raionCode != null && roleType == Role.ERole.ROLE_OPERATOR_RAION) {
-
-            logger.info("Raion code {} would be set for user {}", raionCode, username);
+        if (!raionCurrent) {
+            Locality raion = raionCode != null ? localityRepository.findById(raionCode).orElse(null) : null;
+            if (raionCode != null && raion == null) {
+                logger.warn("Raion {} for user '{}' is not in the nomenclature; raion left unchanged", raionCode, username);
+            } else {
+                user.setRaion(raion);
+                if (!isNewUser) {
+                    // The raion travels in the access token, so tokens issued for the old one are revoked
+                    user.setTokenVersion(user.getTokenVersion() + 1);
+                }
+            }
         }
 
         userRepository.save(user);
@@ -138,4 +166,4 @@ public class DataLoader implements CommandLineRunner {
             logger.info("User '{}' updated successfully", username);
         }
     }
-}
\ No newline at end of file
+}
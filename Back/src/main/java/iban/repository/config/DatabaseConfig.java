@@ -2,12 +2,18 @@ package iban.repository.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
+import java.time.Clock;
 
 @Configuration
 public class DatabaseConfig {
@@ -24,16 +30,81 @@ public class DatabaseConfig {
     @Value("${spring.datasource.driver-class-name}")
     private String driverClassName;
 
+    @Value("${app.datasource.maximumPoolSize:10}")
+    private int maximumPoolSize;
+
+    @Value("${app.datasource.connectionTimeoutMs:30000}")
+    private long connectionTimeoutMs;
+
+    // -1 starts the pools without a first connection (CDS training run in the Dockerfile)
+    @Value("${app.datasource.initializationFailTimeoutMs:1}")
+    private long initializationFailTimeoutMs;
+
+    @Value("${app.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.maximumPoolSize:${app.datasource.maximumPoolSize:10}}")
+    private int replicaMaximumPoolSize;
+
+    @Value("${app.datasource.replica.maxLagMs:5000}")
+    private long replicaMaxLagMs;
+
     @Bean
     @Primary
-    public DataSource dataSource() {
+    public DataSource dataSource(ObjectProvider<ReplicaRoutingDataSource> replicaRouting) {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        if (routing == null) {
+            return primaryPool();
+        }
+        // Defers the routing decision to the first statement, after the read-only flag is known
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Only created when a replica URL is configured; without it every connection comes from the primary pool.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.url")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(ObjectProvider<MeterRegistry> meterRegistry) {
+        // Spring Boot only binds pool metrics for Hikari beans it can unwrap, which these are not
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        HikariDataSource primary = new HikariDataSource(primaryConfig(registry));
+        HikariConfig replicaConfig = config("iban-replica", replicaUrl, replicaUsername, replicaPassword,
+                replicaMaximumPoolSize, registry);
+        replicaConfig.setReadOnly(true);
+        HikariDataSource replica = new HikariDataSource(replicaConfig);
+        return new ReplicaRoutingDataSource(primary, replica, new ReplicaLagGuard(replicaMaxLagMs, Clock.systemUTC()));
+    }
+
+    private HikariDataSource primaryPool() {
+        return new HikariDataSource(primaryConfig(null));
+    }
+
+    private HikariConfig primaryConfig(MeterRegistry registry) {
+        return config("iban-primary", url, username, password, maximumPoolSize, registry);
+    }
+
+    private HikariConfig config(String poolName, String jdbcUrl, String user, String pass, int poolSize,
+                                MeterRegistry registry) {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(url);
-        config.setUsername(username);
-        config.setPassword(password);
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(user);
+        config.setPassword(pass);
         config.setDriverClassName(driverClassName);
-        config.setMaximumPoolSize(10);
-
-        return new HikariDataSource(config);
+        // Tags the hikaricp.* gauges so the primary and replica pools can be told apart
+        config.setPoolName(poolName);
+        config.setMaximumPoolSize(poolSize);
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setInitializationFailTimeout(initializationFailTimeoutMs);
+        if (registry != null) {
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        return config;
     }
-}
\ No newline at end of file
+}
@@ -31,12 +31,11 @@ public class DatabaseInitializer implements CommandLineRunner {
 
     }
 
+    // Asks the catalog instead of probing with a query that fails when the table is missing
     private boolean tableExists(String tableName) {
-        try {
-            jdbcTemplate.execute("SELECT 1 FROM " + tableName + " WHERE 1=0");
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        Integer tables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = UPPER(?)",
+                Integer.class, tableName);
+        return tables != null && tables > 0;
     }
 }
\ No newline at end of file
@@ -2,25 +2,68 @@ package iban.repository.config;
 
 import org.flywaydb.core.Flyway;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
 
 import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Arrays;
 
 @Configuration
 public class FlywayConfig {
 
+    private static final String VENDOR_PLACEHOLDER = "{vendor}";
+
     @Autowired
     private DataSource dataSource;
 
-    @Bean(initMethod = "migrate")
+    // Off for the CDS training run in the Dockerfile, which starts the context without a database
+    @Value("${spring.flyway.enabled:true}")
+    private boolean enabled;
+
+    // Portable scripts plus the vendor-specific ones (e.g. migration-sqlserver for T-SQL triggers)
+    @Value("${spring.flyway.locations:classpath:migration,classpath:migration-{vendor}}")
+    private String[] locations;
+
+    @Bean
     @DependsOn("dataSource")
     public Flyway flyway() {
-        return Flyway.configure()
+        if (!enabled) {
+            return Flyway.configure().dataSource(dataSource).load();
+        }
+
+        Flyway flyway = Flyway.configure()
                 .dataSource(dataSource)
                 .baselineOnMigrate(true)
-                .locations("classpath:db/migration")
+                .locations(resolveLocations(dataSource, locations))
                 .load();
+        flyway.migrate();
+        return flyway;
+    }
+
+    /**
+     * Replaces {@code {vendor}} in the locations with the database id Spring Boot uses for the
+     * same placeholder ({@code sqlserver}, {@code h2}, ...).
+     */
+    public static String[] resolveLocations(DataSource dataSource, String... locations) {
+        if (Arrays.stream(locations).noneMatch(location -> location.contains(VENDOR_PLACEHOLDER))) {
+            return locations;
+        }
+
+        String vendor;
+        try {
+            String url = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getURL);
+            vendor = DatabaseDriver.fromJdbcUrl(url).getId();
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to determine the database vendor for Flyway", e);
+        }
+        return Arrays.stream(locations)
+                .map(location -> location.replace(VENDOR_PLACEHOLDER, vendor))
+                .toArray(String[]::new);
     }
-}
\ No newline at end of file
+}
@@ -1,43 +1,39 @@
 package iban.repository.config;
 
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.orm.jpa.JpaVendorAdapter;
-import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
 
-import jakarta.persistence.ValidationMode;
-import java.util.HashMap;
 import java.util.Map;
 
-@Configuration
-public class HibernateConfig {
+/**
+ * Hibernate settings shared by {@link JpaConfig} and the H2-backed repository tests. JpaConfig is
+ * the only place that builds the JPA configuration.
+ */
+public final class HibernateConfig {
 
-    @Bean
-    public JpaVendorAdapter jpaVendorAdapter() {
-        return new HibernateJpaVendorAdapter();
+    private HibernateConfig() {
     }
 
-    @Bean
-    public Map<String, Object> jpaProperties() {
-        Map<String, Object> props = new HashMap<>();
-
-
-        props.put(AvailableSettings.PHYSICAL_NAMING_STRATEGY, "org.hibernate.boot.model.naming.PhysicalNamingStrategyStandardImpl");
-
-
-        props.put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
-
-
-        props.put("javax.persistence.validation.mode", ValidationMode.NONE.name());
-
-
-        props.put(AvailableSettings.SHOW_SQL, true);
-        props.put(AvailableSettings.FORMAT_SQL, true);
-
-
-        props.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+    /**
+     * In-process JCache (Ehcache) second-level cache. Regions, their sizes and TTLs are defined in
+     * {@code ehcache.xml}; statistics feed the hibernate.* meters and the admin cache endpoint.
+     */
+    public static void applySecondLevelCache(Map<String, Object> props) {
+        props.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+        props.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+        props.put("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+        props.put("hibernate.javax.cache.uri", "ehcache.xml");
+        props.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        props.put(AvailableSettings.GENERATE_STATISTICS, true);
+    }
 
-        return props;
+    /**
+     * Returns the connection at the end of every transaction instead of holding it for the life of
+     * the EntityManager. With open-in-view a request's EntityManager spans several transactions, and
+     * ReplicaRoutingDataSource can only route each of them if each one takes a fresh connection.
+     */
+    public static void applyReplicaRouting(Map<String, Object> props) {
+        props.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
     }
 }
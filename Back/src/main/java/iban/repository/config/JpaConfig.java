@@ -2,8 +2,10 @@ package iban.repository.config;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Primary;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -19,8 +21,30 @@ public class JpaConfig {
     @Autowired
     private DataSource dataSource;
 
+    // Defaults match application.properties; the load-test harness overrides both to run on H2
+    @Value("${spring.jpa.properties.hibernate.dialect:org.hibernate.dialect.SQLServerDialect}")
+    private String dialect;
+
+    @Value("${spring.jpa.hibernate.ddl-auto:validate}")
+    private String ddlAuto;
+
+    // With the dialect given explicitly, false lets Hibernate boot without opening a connection
+    @Value("${spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access:true}")
+    private boolean allowJdbcMetadataAccess;
+
+    @Value("${app.logging.sqlSampleRate:0.0}")
+    private double sqlSampleRate;
+
+    @Value("${app.logging.slowQueryMs:500}")
+    private long slowQueryMs;
+
+    @Value("${app.datasource.replica.url:}")
+    private String replicaUrl;
+
+    // Flyway migrates first, so ddl-auto=validate checks the migrated schema
     @Bean
     @Primary
+    @DependsOn("flyway")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource);
@@ -31,10 +55,22 @@ public class JpaConfig {
         em.setJpaVendorAdapter(vendorAdapter);
 
         HashMap<String, Object> properties = new HashMap<>();
-        properties.put("hibernate.dialect", "org.hibernate.dialect.SQLServerDialect");
-        properties.put("hibernate.show_sql", true);
-        properties.put("hibernate.format_sql", true);
-        properties.put("hibernate.hbm2ddl.auto", "validate");
+        properties.put("hibernate.dialect", dialect);
+        properties.put("hibernate.boot.allow_jdbc_metadata_access", allowJdbcMetadataAccess);
+        // No per-statement console output; a sample of statements and all slow ones are logged instead
+        properties.put("hibernate.show_sql", false);
+        properties.put("hibernate.format_sql", false);
+        properties.put("hibernate.session_factory.statement_inspector", new SampledSqlLogger(sqlSampleRate));
+        properties.put("hibernate.log_slow_query", slowQueryMs);
+        properties.put("hibernate.hbm2ddl.auto", ddlAuto);
+        HibernateConfig.applySecondLevelCache(properties);
+        // open-in-view keeps one EntityManager per request; release its connection after each transaction
+        // so read-only and read-write transactions in the same request go to their own pool
+        if (!replicaUrl.isEmpty()) {
+            HibernateConfig.applyReplicaRouting(properties);
+        }
+        // Pads IN lists to powers of two so multi-value filters reuse a handful of plans
+        properties.put("hibernate.query.in_clause_parameter_padding", true);
 
         em.setJpaPropertyMap(properties);
 
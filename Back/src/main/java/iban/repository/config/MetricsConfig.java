@@ -0,0 +1,81 @@
+package iban.repository.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Meters on top of what Spring Boot records out of the box (HTTP requests, Hikari pool,
+ * {@code spring.data.repository.invocations} timers per repository method):
+ * {@code @Timed} service timers and a row-count summary per repository method.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryRowCountPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(rowCountInterceptor(
+                                    meterRegistry.getObject(), information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor rowCountInterceptor(MeterRegistry meterRegistry, String repository) {
+        return invocation -> {
+            Object result = invocation.proceed();
+            String method = invocation.getMethod().getName();
+
+            if (result instanceof Stream<?> stream) {
+                // Streams are consumed after the call returns; record the rows when the caller closes it
+                AtomicLong rows = new AtomicLong();
+                return stream.peek(row -> rows.incrementAndGet())
+                        .onClose(() -> rows(meterRegistry, repository, method).record(rows.get()));
+            }
+
+            long rows;
+            if (result instanceof Collection<?> collection) {
+                rows = collection.size();
+            } else if (result instanceof Slice<?> slice) {
+                rows = slice.getNumberOfElements();
+            } else if (result instanceof Optional<?> optional) {
+                rows = optional.isPresent() ? 1 : 0;
+            } else {
+                return result;
+            }
+            rows(meterRegistry, repository, method).record(rows);
+            return result;
+        };
+    }
+
+    private static DistributionSummary rows(MeterRegistry meterRegistry, String repository, String method) {
+        return DistributionSummary.builder("iban.repository.rows")
+                .description("Rows returned per repository call")
+                .tag("repository", repository)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,72 @@
+package iban.repository.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last committed a write, so that their read-only work stays on the
+ * primary until the replica has had time to catch up (read-your-writes across requests).
+ * The window is a per-instance approximation of the replica lag, not a measured value.
+ */
+public class ReplicaLagGuard {
+
+    private final long maxLagMs;
+    private final Clock clock;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public ReplicaLagGuard(long maxLagMs, Clock clock) {
+        this.maxLagMs = maxLagMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Called when a read-write transaction takes its connection; the write window starts
+     * once that transaction commits.
+     */
+    void onWriteTransaction() {
+        String username = currentUsername();
+        if (username == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, username);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteByUser.put(username, clock.millis());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaLagGuard.this);
+            }
+        });
+    }
+
+    boolean requiresPrimary() {
+        String username = currentUsername();
+        if (username == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(username);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (clock.millis() - lastWrite < maxLagMs) {
+            return true;
+        }
+        lastWriteByUser.remove(username, lastWrite);
+        return false;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,61 @@
+package iban.repository.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections taken inside {@code @Transactional(readOnly = true)} work to the replica pool
+ * and everything else to the primary. Must sit behind a LazyConnectionDataSourceProxy: the
+ * transaction managers open their connection before the read-only flag is published, so the
+ * lookup key has to be resolved on the first statement instead.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagGuard lagGuard;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard lagGuard) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagGuard = lagGuard;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            lagGuard.onWriteTransaction();
+            return Target.PRIMARY;
+        }
+        return lagGuard.requiresPrimary() ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    /**
+     * The pools are not beans of their own, so the context closes them through this one.
+     */
+    @Override
+    public void close() throws Exception {
+        try {
+            closeIfPossible(replica);
+        } finally {
+            closeIfPossible(primary);
+        }
+    }
+
+    private static void closeIfPossible(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package iban.repository.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs a random sample of the SQL statements Hibernate prepares, instead of every statement as
+ * {@code show_sql} does. Slow statements are logged separately by Hibernate's slow query log.
+ */
+public class SampledSqlLogger implements StatementInspector {
+    private static final Logger logger = LoggerFactory.getLogger("iban.sql.sample");
+
+    private final double sampleRate;
+
+    public SampledSqlLogger(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (sampleRate > 0 && logger.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            logger.atInfo().addKeyValue("sampleRate", sampleRate).log(sql);
+        }
+        return sql;
+    }
+}
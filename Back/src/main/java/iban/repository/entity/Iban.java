@@ -1,6 +1,10 @@
 package iban.repository.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,8 +18,17 @@ import java.time.Year;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "ibans")
+@Table(name = "ibans", uniqueConstraints = @UniqueConstraint(
+        name = Iban.NATURAL_KEY_CONSTRAINT,
+        columnNames = {"year", "eco_code", "locality_code"}))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "iban")
+@NaturalIdCache(region = "iban-natural-id")
 public class Iban {
+    public static final String NATURAL_KEY_CONSTRAINT = "UX_ibans_year_eco_locality";
+    public static final String NATURAL_ID_YEAR = "yearValue";
+    public static final String NATURAL_ID_ECO_CODE = "ecoCode";
+    public static final String NATURAL_ID_LOCALITY = "locality";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -24,6 +37,8 @@ public class Iban {
     private String ibanCode;
 
 
+    // Natural id parts are mutable: updateIban may move an IBAN to another year/eco code/locality
+    @NaturalId(mutable = true)
     @Column(name = "year", nullable = false)
     private Integer yearValue;
 
@@ -31,10 +46,12 @@ public class Iban {
     @Transient
     private Year year;
 
+    @NaturalId(mutable = true)
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "eco_code", nullable = false)
     private EcoCode ecoCode;
 
+    @NaturalId(mutable = true)
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "locality_code", nullable = false)
     private Locality locality;
@@ -46,6 +63,11 @@ public class Iban {
     @Column(name = "created_date")
     private LocalDateTime createdDate;
 
+    // Exposed as the ETag of an IBAN; guarded updates compare it instead of locking the row
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 
     @PostLoad
     private void onLoad() {
@@ -0,0 +1,31 @@
+package iban.repository.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Row of the locality ancestor closure: one row per (ancestor, descendant) pair, including the
+ * locality itself at depth 0. The table is maintained by the TR_Location_ancestors trigger.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@IdClass(LocalityAncestorId.class)
+@Table(name = "locality_ancestors")
+public class LocalityAncestor {
+    @Id
+    @Column(name = "ancestor_code", length = 50)
+    private String ancestorCode;
+
+    @Id
+    @Column(name = "locality_code", length = 50)
+    private String localityCode;
+
+    @Column(name = "depth", nullable = false)
+    private Integer depth;
+}
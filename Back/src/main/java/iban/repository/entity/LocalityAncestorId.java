@@ -0,0 +1,15 @@
+package iban.repository.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocalityAncestorId implements Serializable {
+    private String ancestorCode;
+    private String localityCode;
+}
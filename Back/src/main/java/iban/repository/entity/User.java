@@ -43,4 +43,8 @@ public class User {
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "raion_code")
     private Locality raion;
+
+    // Embedded in access tokens; bumped when roles, raion or credentials change to revoke older tokens
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
 }
\ No newline at end of file
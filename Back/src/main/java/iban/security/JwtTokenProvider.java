@@ -1,52 +1,175 @@
 package iban.security;
 
+import iban.repository.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
-    @Value("${app.jwtSecret}")
-    private String jwtSecret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_RAION = "raion";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
 
-    @Value("${app.jwtExpirationMs}")
-    private int jwtExpirationMs;
+    private final int jwtExpirationMs;
+    private final Key key;
+    private final JwtParser parser;
+    private final Clock clock;
 
-    public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+    // SHA-256 of recently verified tokens -> claims, kept until the token expires
+    private final int cacheSize;
+    private final ConcurrentHashMap<ByteBuffer, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    // jwt.verification latency, tagged by result: cached, verified or rejected
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    @Autowired
+    public JwtTokenProvider(@Value("${app.jwtSecret}") String jwtSecret,
+                            @Value("${app.jwtExpirationMs}") int jwtExpirationMs,
+                            @Value("${app.jwtCacheSize:10000}") int cacheSize,
+                            MeterRegistry meterRegistry) {
+        this(jwtSecret, jwtExpirationMs, cacheSize, meterRegistry, Clock.systemUTC());
+    }
+
+    // The clock drives issuing, signature-time expiry checks and the cache expiry alike
+    public JwtTokenProvider(String jwtSecret, int jwtExpirationMs, int cacheSize, MeterRegistry meterRegistry,
+                            Clock clock) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.clock = clock;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).setClock(() -> new Date(clock.millis())).build();
+        this.cacheSize = cacheSize;
+        this.cachedTimer = verificationTimer(meterRegistry, "cached");
+        this.verifiedTimer = verificationTimer(meterRegistry, "verified");
+        this.rejectedTimer = verificationTimer(meterRegistry, "rejected");
+        Gauge.builder("jwt.cache.size", verifiedTokens, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Issues an access token that carries everything the filter needs to authenticate a
+     * request (user id, roles, raion and token version), so no user lookup is required.
+     */
+    public String generateToken(User user) {
+        List<String> roles = user.getRoles().stream()
+                .map(role -> role.getName().name())
+                .collect(Collectors.toList());
+        Date now = new Date(clock.millis());
 
         return Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .setSubject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_RAION, user.getRaion() != null ? user.getRaion().getCode() : null)
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + jwtExpirationMs))
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+    /**
+     * Builds the authentication for a verified token from its claims alone. The principal is a
+     * password-less {@link AuthenticatedUser}, so {@code Authentication#getName()} still returns the username.
+     */
+    public UsernamePasswordAuthenticationToken getAuthentication(Claims claims) {
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+
+        UserDetails principal = new AuthenticatedUser(getUserId(claims), claims.getSubject(), authorities);
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+
+    public Long getUserId(Claims claims) {
+        return claims.get(CLAIM_USER_ID, Long.class);
+    }
+
+    public Integer getTokenVersion(Claims claims) {
+        return claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+    }
+
+    /**
+     * Verifies the signature and expiry once and returns the claims, or {@code null} if the
+     * token is not valid. Tokens verified recently are answered from a bounded digest cache.
+     */
+    public Claims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            logger.error("JWT claims string is empty");
+            return null;
+        }
+
+        long start = System.nanoTime();
+        ByteBuffer digest = cacheSize > 0 ? digest(token) : null;
+        if (digest != null) {
+            VerifiedToken cached = verifiedTokens.get(digest);
+            if (cached != null) {
+                if (cached.expiresAt > clock.millis()) {
+                    cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return cached.claims;
+                }
+                verifiedTokens.remove(digest);
+            }
+        }
+
+        Claims claims = verify(token);
+        if (claims == null) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+        verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (digest != null && claims.getExpiration() != null) {
+            if (verifiedTokens.size() >= cacheSize) {
+                evict();
+            }
+            verifiedTokens.put(digest, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public String getUsernameFromJwtToken(String token) {
+        Claims claims = parseClaims(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    private Claims verify(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -55,8 +178,37 @@ public class JwtTokenProvider {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         }
+        return null;
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.verification")
+                .description("Time to resolve the claims of a bearer token")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private void evict() {
+        long now = clock.millis();
+        verifiedTokens.values().removeIf(entry -> entry.expiresAt <= now);
+        if (verifiedTokens.size() >= cacheSize) {
+            verifiedTokens.clear();
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
 
-        return false;
+    private record VerifiedToken(Claims claims, long expiresAt) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package iban.security;
+
+import iban.controller.dto.response.LoginStatsResponse;
+import iban.exception.CustomException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, bounded pool for BCrypt work so that a login burst cannot occupy the servlet
+ * threads. When the queue is full new logins are turned away with 503 instead of piling up.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+
+    private final Timer queueWait;
+    private final Timer hashTime;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(@Value("${app.login.hashThreads:0}") int threads,
+                                   @Value("${app.login.queueCapacity:256}") int queueCapacity,
+                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWait = Timer.builder("auth.password.queue")
+                .description("Time a login waits for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.hashTime = Timer.builder("auth.password.hash")
+                .description("BCrypt verify (and rehash) time per login")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("auth.password.rejected");
+        Gauge.builder("auth.password.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    hashTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new CustomException("Prea multe autentificări simultane, încercați din nou", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    public LoginStatsResponse getStats() {
+        return new LoginStatsResponse(
+                executor.getMaximumPoolSize(),
+                executor.getQueue().size(),
+                queueCapacity,
+                hashTime.count(),
+                (long) rejected.count(),
+                (long) queueWait.mean(TimeUnit.MILLISECONDS),
+                (long) hashTime.mean(TimeUnit.MILLISECONDS),
+                (long) hashTime.max(TimeUnit.MILLISECONDS)
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,64 @@
+package iban.security;
+
+import iban.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of the current token version per user id, so the JWT filter can reject
+ * revoked tokens without a database round trip. Local changes are applied immediately;
+ * the table is re-read periodically to pick up changes made on other instances.
+ */
+@Component
+public class TokenVersionRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionRegistry.class);
+
+    private static final int DELETED = -1;
+
+    private final UserRepository userRepository;
+    private final ConcurrentHashMap<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    public TokenVersionRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        if (userId == null || tokenVersion == null) {
+            return false;
+        }
+
+        Integer current = versions.get(userId);
+        if (current == null) {
+            current = userRepository.findTokenVersionById(userId).orElse(DELETED);
+            versions.put(userId, current);
+        }
+        return current != DELETED && current.intValue() == tokenVersion.intValue();
+    }
+
+    public void update(Long userId, int tokenVersion) {
+        versions.put(userId, tokenVersion);
+    }
+
+    public void revoke(Long userId) {
+        versions.put(userId, DELETED);
+    }
+
+    @Scheduled(initialDelayString = "${app.tokenVersion.refreshMs:30000}",
+            fixedDelayString = "${app.tokenVersion.refreshMs:30000}")
+    public void refresh() {
+        Map<Long, Integer> loaded = new HashMap<>();
+        userRepository.findAllTokenVersions()
+                .forEach(view -> loaded.put(view.getId(), view.getTokenVersion()));
+
+        versions.replaceAll((userId, version) -> loaded.getOrDefault(userId, DELETED));
+        versions.putAll(loaded);
+
+        logger.debug("Token versions refreshed for {} users", loaded.size());
+    }
+}
@@ -4,6 +4,8 @@ package iban.service;
 import iban.controller.dto.request.LoginRequest;
 import iban.controller.dto.response.JwtResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
-    JwtResponse authenticateUser(LoginRequest loginRequest);
-}
\ No newline at end of file
+    CompletableFuture<JwtResponse> authenticateUser(LoginRequest loginRequest);
+}
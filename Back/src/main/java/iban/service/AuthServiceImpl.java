@@ -3,51 +3,82 @@ package iban.service;
 
 import iban.controller.dto.request.LoginRequest;
 import iban.controller.dto.response.JwtResponse;
+import iban.exception.CustomException;
 import iban.repository.UserRepository;
 import iban.repository.entity.User;
 import iban.security.JwtTokenProvider;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import iban.security.PasswordHashingExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 public class AuthServiceImpl implements AuthService {
-
-    private final AuthenticationManager authenticationManager;
+    private static final Logger logger = LoggerFactory.getLogger(AuthServiceImpl.class);
 
     private final JwtTokenProvider jwtTokenProvider;
 
     private final UserRepository userRepository;
 
-    public AuthServiceImpl(AuthenticationManager authenticationManager, JwtTokenProvider jwtTokenProvider, UserRepository userRepository) {
-        this.authenticationManager = authenticationManager;
+    private final PasswordEncoder passwordEncoder;
+
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    // Compared against when the username is unknown, so both cases cost one BCrypt verify
+    private final String unknownUserPassword;
+
+    public AuthServiceImpl(JwtTokenProvider jwtTokenProvider, UserRepository userRepository,
+                           PasswordEncoder passwordEncoder, PasswordHashingExecutor passwordHashingExecutor) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.unknownUserPassword = passwordEncoder.encode("unknown-user-password");
     }
 
+    /**
+     * Loads the user once on the calling thread and runs the BCrypt verify on the bounded
+     * hashing pool. Hashes stored with an older cost are re-encoded on successful login.
+     */
     @Override
-    public JwtResponse authenticateUser(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+    public CompletableFuture<JwtResponse> authenticateUser(LoginRequest loginRequest) {
+        User user = userRepository.findByUsername(loginRequest.getUsername()).orElse(null);
+        String encodedPassword = user != null ? user.getPassword() : unknownUserPassword;
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtTokenProvider.generateToken(authentication);
+        return passwordHashingExecutor.submit(() -> {
+            boolean matches = passwordEncoder.matches(loginRequest.getPassword(), encodedPassword);
+            if (user == null || !matches) {
+                throw new CustomException("Nume de utilizator sau parolă incorectă", HttpStatus.UNAUTHORIZED);
+            }
 
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        List<String> roles = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList());
+            if (passwordEncoder.upgradeEncoding(encodedPassword)) {
+                rehashPassword(user, loginRequest.getPassword());
+            }
+            return buildResponse(user);
+        });
+    }
+
+    private void rehashPassword(User user, String rawPassword) {
+        String upgraded = passwordEncoder.encode(rawPassword);
+        // Guarded on the old hash so a concurrent password change is never overwritten
+        if (userRepository.updatePassword(user.getId(), user.getPassword(), upgraded) > 0) {
+            logger.info("Password hash upgraded for user {}", user.getUsername());
+        }
+    }
 
-        User user = userRepository.findByUsername(userDetails.getUsername()).orElseThrow();
+    private JwtResponse buildResponse(User user) {
+        List<String> roles = user.getRoles().stream()
+                .map(role -> role.getName().name())
+                .collect(Collectors.toList());
         String raionCode = user.getRaion() != null ? user.getRaion().getCode() : null;
+        String jwt = jwtTokenProvider.generateToken(user);
 
         return new JwtResponse(jwt, user.getId(), user.getUsername(), user.getEmail(), roles, raionCode);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package iban.service;
+
+import iban.controller.dto.response.CacheRegionStatsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-region hit ratios of the Hibernate second-level cache. The same statistics are published
+ * as hibernate.* meters; this view is for the admin endpoint.
+ */
+@Component
+public class CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public List<CacheRegionStatsResponse> getRegionStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+
+        List<CacheRegionStatsResponse> result = new ArrayList<>(regions.length);
+        for (String region : regions) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats == null) {
+                continue;
+            }
+            long hits = regionStats.getHitCount();
+            long misses = regionStats.getMissCount();
+            result.add(new CacheRegionStatsResponse(
+                    region,
+                    hits,
+                    misses,
+                    regionStats.getPutCount(),
+                    hits + misses > 0 ? (double) hits / (hits + misses) : 0.0,
+                    regionStats.getElementCountInMemory()));
+        }
+        return result;
+    }
+
+    public void clear() {
+        entityManagerFactory.getCache().evictAll();
+    }
+}
@@ -0,0 +1,10 @@
+package iban.service;
+
+import iban.controller.dto.request.IbanFilterRequest;
+import iban.controller.dto.request.IbanReassignRequest;
+import iban.controller.dto.response.IbanBulkResponse;
+
+public interface IbanBulkService {
+    IbanBulkResponse deleteByFilter(IbanFilterRequest filterRequest, boolean dryRun, String username);
+    IbanBulkResponse reassign(IbanReassignRequest reassignRequest, boolean dryRun, String username);
+}
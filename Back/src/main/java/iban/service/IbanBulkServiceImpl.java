@@ -0,0 +1,198 @@
+package iban.service;
+
+import iban.controller.dto.request.IbanFilterRequest;
+import iban.controller.dto.request.IbanReassignRequest;
+import iban.controller.dto.response.IbanBulkResponse;
+import iban.controller.dto.response.IbanResponse;
+import iban.exception.CustomException;
+import iban.repository.IbanRepository;
+import iban.repository.IbanRowKey;
+import iban.repository.IbanSpecifications;
+import iban.repository.entity.Iban;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Set-based delete and reassign over many IBANs. Every operation is previewed with COUNT queries;
+ * the write then walks the matching ids in keyset chunks, one DELETE/UPDATE and one transaction per
+ * chunk, so a large run never holds locks on the whole table.
+ */
+@Service
+public class IbanBulkServiceImpl implements IbanBulkService {
+    private static final Logger logger = LoggerFactory.getLogger(IbanBulkServiceImpl.class);
+
+    static final int MAX_CONFLICT_ROWS = 1_000;
+
+    private final IbanRepository ibanRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public IbanBulkServiceImpl(IbanRepository ibanRepository,
+                               ReferenceDataCache referenceDataCache,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.bulk.chunkSize:500}") int chunkSize) {
+        this.ibanRepository = ibanRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public IbanBulkResponse deleteByFilter(IbanFilterRequest filterRequest, boolean dryRun, String username) {
+        if (filterRequest == null || IbanSpecifications.isEmpty(filterRequest)) {
+            throw new CustomException("Filtrul pentru ștergere nu poate fi gol", HttpStatus.BAD_REQUEST);
+        }
+        IbanServiceImpl.validateFilter(filterRequest);
+
+        Specification<Iban> matching = IbanSpecifications.matching(filterRequest);
+        long matched = ibanRepository.countMatching(matching);
+        IbanBulkResponse response = new IbanBulkResponse(true, matched, matched, 0L, 0, List.of());
+        if (dryRun || matched == 0) {
+            response.setDryRun(dryRun);
+            return response;
+        }
+
+        ChunkResult result = inChunks(matching, ibanRepository::deleteByIds);
+        response.setDryRun(false);
+        response.setAffected(result.affected);
+        response.setChunks(result.chunks);
+
+        logger.atInfo()
+                .addKeyValue("user", username)
+                .addKeyValue("filter", filterRequest)
+                .addKeyValue("deleted", result.affected)
+                .addKeyValue("chunks", result.chunks)
+                .log("IBAN bulk delete");
+        return response;
+    }
+
+    @Override
+    public IbanBulkResponse reassign(IbanReassignRequest request, boolean dryRun, String username) {
+        String fromEco = trimToNull(request.getFromEcoCode());
+        String toEco = trimToNull(request.getToEcoCode());
+        String fromLocality = trimToNull(request.getFromLocalityCode());
+        String toLocality = trimToNull(request.getToLocalityCode());
+        validateReassign(request, fromEco, toEco, fromLocality, toLocality);
+
+        IbanFilterRequest source = new IbanFilterRequest();
+        source.setEcoCode(fromEco);
+        source.setLocalityCode(fromLocality);
+        source.setYear(request.getYear());
+        source.setYearFrom(request.getYearFrom());
+        source.setYearTo(request.getYearTo());
+
+        Specification<Iban> matching = IbanSpecifications.matching(source);
+        Specification<Iban> conflicting = matching.and(IbanSpecifications.targetKeyTaken(toEco, toLocality));
+        long matched = ibanRepository.countMatching(matching);
+        long conflicts = ibanRepository.countMatching(conflicting);
+        List<IbanResponse> conflictRows = conflicts > 0
+                ? ibanRepository.findResponses(conflicting, 0L, MAX_CONFLICT_ROWS)
+                : List.of();
+        IbanBulkResponse response = new IbanBulkResponse(true, matched, matched - conflicts, conflicts, 0, conflictRows);
+        if (dryRun || matched == conflicts) {
+            response.setDryRun(dryRun);
+            return response;
+        }
+
+        Specification<Iban> movable = matching.and(Specification.not(IbanSpecifications.targetKeyTaken(toEco, toLocality)));
+        ChunkResult result = inChunks(movable, ids -> ibanRepository.reassign(ids, fromEco, toEco, fromLocality, toLocality));
+        response.setDryRun(false);
+        response.setAffected(result.affected);
+        // Keys taken by concurrent writers between the preview and the chunk are skipped as well
+        response.setConflicts(conflicts + result.skipped);
+        response.setChunks(result.chunks);
+
+        logger.atInfo()
+                .addKeyValue("user", username)
+                .addKeyValue("request", request)
+                .addKeyValue("moved", result.affected)
+                .addKeyValue("conflicts", response.getConflicts())
+                .addKeyValue("chunks", result.chunks)
+                .log("IBAN bulk reassign");
+        return response;
+    }
+
+    private ChunkResult inChunks(Specification<Iban> specification, ToIntFunction<List<Long>> statement) {
+        ChunkResult result = new ChunkResult();
+        long afterId = 0L;
+        while (true) {
+            long from = afterId;
+            List<IbanRowKey> keys = transactionTemplate.execute(status -> {
+                List<IbanRowKey> chunk = ibanRepository.findKeys(specification, from, chunkSize);
+                if (chunk.isEmpty()) {
+                    return chunk;
+                }
+                int affected;
+                try {
+                    affected = statement.applyAsInt(chunk.stream().map(IbanRowKey::id).toList());
+                } catch (DataIntegrityViolationException e) {
+                    throw new CustomException("IBAN-urile au fost modificate în timpul operației, reîncercați",
+                            HttpStatus.CONFLICT);
+                }
+                result.affected += affected;
+                result.skipped += chunk.size() - affected;
+                if (affected > 0) {
+                    Set<Integer> years = new HashSet<>();
+                    chunk.forEach(key -> years.add(key.year()));
+                    eventPublisher.publishEvent(new IbanChangedEvent(years));
+                }
+                return chunk;
+            });
+            if (keys == null || keys.isEmpty()) {
+                return result;
+            }
+            result.chunks++;
+            afterId = keys.get(keys.size() - 1).id();
+        }
+    }
+
+    private void validateReassign(IbanReassignRequest request, String fromEco, String toEco,
+                                  String fromLocality, String toLocality) {
+        if ((fromEco == null) != (toEco == null) || (fromLocality == null) != (toLocality == null)) {
+            throw new CustomException("Codul sursă și codul țintă trebuie indicate împreună", HttpStatus.BAD_REQUEST);
+        }
+        if (fromEco == null && fromLocality == null) {
+            throw new CustomException("Indicați codul Eco sau localitatea de mutat", HttpStatus.BAD_REQUEST);
+        }
+        if (Objects.equals(fromEco, toEco) && Objects.equals(fromLocality, toLocality)) {
+            throw new CustomException("Codurile țintă coincid cu cele sursă", HttpStatus.BAD_REQUEST);
+        }
+        if (request.getYearFrom() != null && request.getYearTo() != null && request.getYearFrom() > request.getYearTo()) {
+            throw new CustomException("Intervalul de ani este invalid", HttpStatus.BAD_REQUEST);
+        }
+        if (toEco != null && referenceDataCache.findEcoCode(toEco).isEmpty()) {
+            throw new CustomException("Codul Eco nu a fost găsit", HttpStatus.NOT_FOUND);
+        }
+        if (toLocality != null && referenceDataCache.findLocality(toLocality).isEmpty()) {
+            throw new CustomException("Localitatea nu a fost găsită", HttpStatus.NOT_FOUND);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static final class ChunkResult {
+        private long affected;
+        private long skipped;
+        private int chunks;
+    }
+}
@@ -0,0 +1,10 @@
+package iban.service;
+
+import java.util.Set;
+
+/**
+ * Published after IBAN rows are written. {@code years} are the fiscal years touched by the write,
+ * before and after the change; an empty set means the affected years are unknown.
+ */
+public record IbanChangedEvent(Set<Integer> years) {
+}
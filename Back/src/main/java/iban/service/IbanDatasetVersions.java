@@ -0,0 +1,57 @@
+package iban.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version counters behind the ETags of the read endpoints: one for all IBANs, one per
+ * fiscal year, and the reference data snapshot version. Counters move after the writing transaction
+ * commits, so a tag is never newer than the data served with it. Tags embed the start time of this
+ * instance because the counters restart from zero.
+ */
+@Component
+public class IbanDatasetVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ReferenceDataCache referenceDataCache;
+
+    private final AtomicLong ibans = new AtomicLong();
+    private final Map<Integer, AtomicLong> years = new ConcurrentHashMap<>();
+    // Bumped when a write did not say which years it touched; part of every per-year tag
+    private final AtomicLong allYears = new AtomicLong();
+
+    public IbanDatasetVersions(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    // IBAN responses embed eco code labels and locality names, so their tags include the reference version
+
+    public String ibansTag() {
+        return "ibans-" + epoch + "-" + ibans.get() + "-" + referenceDataCache.getVersion();
+    }
+
+    public String yearTag(int year) {
+        AtomicLong version = years.get(year);
+        return "ibans-" + year + "-" + epoch + "-" + allYears.get() + "." + (version != null ? version.get() : 0)
+                + "-" + referenceDataCache.getVersion();
+    }
+
+    public String referenceDataTag() {
+        return "reference-" + epoch + "-" + referenceDataCache.getVersion();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIbanChanged(IbanChangedEvent event) {
+        if (event.years().isEmpty() || event.years().stream().anyMatch(Objects::isNull)) {
+            allYears.incrementAndGet();
+        } else {
+            event.years().forEach(year -> years.computeIfAbsent(year, y -> new AtomicLong()).incrementAndGet());
+        }
+        ibans.incrementAndGet();
+    }
+}
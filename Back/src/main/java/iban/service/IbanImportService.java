@@ -0,0 +1,10 @@
+package iban.service;
+
+import iban.controller.dto.response.IbanImportResponse;
+
+import java.io.InputStream;
+
+public interface IbanImportService {
+    IbanImportResponse importCsv(InputStream inputStream, String username);
+    IbanImportResponse importNdjson(InputStream inputStream, String username);
+}
@@ -0,0 +1,350 @@
+package iban.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import iban.controller.dto.request.IbanRequest;
+import iban.controller.dto.response.IbanImportResponse;
+import iban.controller.dto.response.IbanImportRowResponse;
+import iban.exception.CustomException;
+import iban.repository.IbanBatchWriter;
+import iban.repository.UserRepository;
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import iban.repository.entity.User;
+import iban.validator.IbanValidator;
+import jakarta.validation.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class IbanImportServiceImpl implements IbanImportService {
+    private static final Logger logger = LoggerFactory.getLogger(IbanImportServiceImpl.class);
+
+    static final String STATUS_INVALID = "INVALID";
+    static final String STATUS_DUPLICATE = "DUPLICATE";
+
+    private static final String[] COLUMNS = {"ibanCode", "year", "ecoCode", "localityCode"};
+
+    private final ReferenceDataCache referenceDataCache;
+    private final UserRepository userRepository;
+    private final IbanBatchWriter ibanBatchWriter;
+    private final IbanValidator ibanValidator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public IbanImportServiceImpl(ReferenceDataCache referenceDataCache,
+                                 UserRepository userRepository,
+                                 IbanBatchWriter ibanBatchWriter,
+                                 IbanValidator ibanValidator,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${app.import.batchSize:500}") int batchSize) {
+        this.referenceDataCache = referenceDataCache;
+        this.userRepository = userRepository;
+        this.ibanBatchWriter = ibanBatchWriter;
+        this.ibanValidator = ibanValidator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public IbanImportResponse importCsv(InputStream inputStream, String username) {
+        ImportRun run = new ImportRun(findUser(username));
+
+        try (CSVReader reader = new CSVReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            int[] columns = {0, 1, 2, 3};
+            boolean first = true;
+            String[] record;
+            while ((record = reader.readNext()) != null) {
+                long line = reader.getLinesRead();
+                if (first) {
+                    first = false;
+                    if (isHeader(record)) {
+                        columns = columnsFromHeader(record);
+                        continue;
+                    }
+                }
+                if (record.length == 1 && record[0].isBlank()) {
+                    continue;
+                }
+                run.add(line, record, columns);
+            }
+        } catch (IOException | CsvValidationException e) {
+            throw new CustomException("Fișierul CSV nu poate fi citit: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        return run.finish();
+    }
+
+    @Override
+    public IbanImportResponse importNdjson(InputStream inputStream, String username) {
+        ImportRun run = new ImportRun(findUser(username));
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            long line = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    run.add(line, objectMapper.readValue(text, IbanRequest.class));
+                } catch (JsonProcessingException e) {
+                    run.addInvalid(line, "JSON invalid: " + e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new CustomException("Fișierul NDJSON nu poate fi citit: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        return run.finish();
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new CustomException("Utilizatorul nu a fost găsit", HttpStatus.NOT_FOUND));
+    }
+
+    private static boolean isHeader(String[] record) {
+        for (String value : record) {
+            for (String column : COLUMNS) {
+                if (column.equalsIgnoreCase(value.trim())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int[] columnsFromHeader(String[] header) {
+        int[] columns = {-1, -1, -1, -1};
+        for (int i = 0; i < header.length; i++) {
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (COLUMNS[c].equalsIgnoreCase(header[i].trim())) {
+                    columns[c] = i;
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static String value(String[] record, int column) {
+        if (column < 0 || column >= record.length) {
+            return null;
+        }
+        String value = record[column].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private void validate(ImportRow row, User createdBy) {
+        if (row.error != null) {
+            return;
+        }
+        IbanRequest request = row.request;
+
+        try {
+            ibanValidator.validate(request);
+        } catch (ValidationException e) {
+            row.error = e.getMessage();
+            return;
+        }
+
+        if (request.getYear() == null || request.getYear() < 2000 || request.getYear() > 2099) {
+            row.error = "Anul trebuie să fie între 2000 și 2099";
+            return;
+        }
+
+        Optional<EcoCode> ecoCode = request.getEcoCode() != null
+                ? referenceDataCache.findEcoCode(request.getEcoCode())
+                : Optional.empty();
+        if (ecoCode.isEmpty()) {
+            row.error = "Codul Eco nu a fost găsit";
+            return;
+        }
+
+        Optional<Locality> locality = request.getLocalityCode() != null
+                ? referenceDataCache.findLocality(request.getLocalityCode())
+                : Optional.empty();
+        if (locality.isEmpty()) {
+            row.error = "Localitatea nu a fost găsită";
+            return;
+        }
+
+        row.iban = Iban.builder()
+                .ibanCode(request.getIbanCode())
+                .yearValue(request.getYear())
+                .year(Year.of(request.getYear()))
+                .ecoCode(ecoCode.get())
+                .locality(locality.get())
+                .createdBy(createdBy)
+                .createdDate(LocalDateTime.now())
+                .build();
+    }
+
+    private int[] write(List<Iban> ibans) {
+        try {
+            return transactionTemplate.execute(status -> ibanBatchWriter.insertIfAbsent(ibans));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took one of the keys between NOT EXISTS and the insert; retry row by row
+            logger.warn("Batch insert hit the natural key index, retrying {} rows one by one", ibans.size());
+            int[] counts = new int[ibans.size()];
+            for (int i = 0; i < ibans.size(); i++) {
+                List<Iban> single = List.of(ibans.get(i));
+                try {
+                    counts[i] = transactionTemplate.execute(status -> ibanBatchWriter.insertIfAbsent(single))[0];
+                } catch (DataIntegrityViolationException ex) {
+                    counts[i] = 0;
+                }
+            }
+            return counts;
+        }
+    }
+
+    private static final class ImportRow {
+        private final long line;
+        private final IbanRequest request;
+        private String error;
+        private Iban iban;
+
+        private ImportRow(long line, IbanRequest request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+
+        private String key() {
+            return iban.getYearValue() + "|" + iban.getEcoCode().getCode() + "|" + iban.getLocality().getCode();
+        }
+    }
+
+    /**
+     * State of one upload: rows are buffered up to the batch size, validated in parallel,
+     * de-duplicated against earlier rows of the same file and written as one JDBC batch.
+     */
+    private final class ImportRun {
+        private final User createdBy;
+        private final List<ImportRow> pending = new ArrayList<>();
+        private final Set<String> seenKeys = new HashSet<>();
+        private final List<IbanImportRowResponse> rejected = new ArrayList<>();
+        private int accepted;
+        private int duplicates;
+        private int invalid;
+
+        private ImportRun(User createdBy) {
+            this.createdBy = createdBy;
+        }
+
+        private void add(long line, String[] record, int[] columns) {
+            IbanRequest request = new IbanRequest();
+            request.setIbanCode(value(record, columns[0]));
+            request.setEcoCode(value(record, columns[2]));
+            request.setLocalityCode(value(record, columns[3]));
+
+            String year = value(record, columns[1]);
+            if (year != null) {
+                try {
+                    request.setYear(Integer.valueOf(year));
+                } catch (NumberFormatException e) {
+                    addInvalid(line, "Anul nu este un număr: " + year);
+                    return;
+                }
+            }
+            add(line, request);
+        }
+
+        private void add(long line, IbanRequest request) {
+            pending.add(new ImportRow(line, request, null));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void addInvalid(long line, String message) {
+            pending.add(new ImportRow(line, null, message));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            pending.parallelStream().forEach(row -> validate(row, createdBy));
+
+            List<ImportRow> toInsert = new ArrayList<>(pending.size());
+            for (ImportRow row : pending) {
+                if (row.error != null) {
+                    invalid++;
+                    rejected.add(new IbanImportRowResponse(row.line, STATUS_INVALID, row.error));
+                } else if (!seenKeys.add(row.key())) {
+                    duplicates++;
+                    rejected.add(new IbanImportRowResponse(row.line, STATUS_DUPLICATE,
+                            "Rând duplicat în fișier pentru acest an, cod eco și localitate"));
+                } else {
+                    toInsert.add(row);
+                }
+            }
+            pending.clear();
+
+            if (toInsert.isEmpty()) {
+                return;
+            }
+
+            int[] counts = write(toInsert.stream().map(row -> row.iban).toList());
+            Set<Integer> insertedYears = new HashSet<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    duplicates++;
+                    rejected.add(new IbanImportRowResponse(toInsert.get(i).line, STATUS_DUPLICATE,
+                            "IBAN-ul există deja pentru acest an, cod eco și localitate"));
+                } else {
+                    accepted++;
+                    insertedYears.add(toInsert.get(i).iban.getYearValue());
+                }
+            }
+            if (!insertedYears.isEmpty()) {
+                eventPublisher.publishEvent(new IbanChangedEvent(insertedYears));
+            }
+        }
+
+        private IbanImportResponse finish() {
+            flush();
+            rejected.sort(Comparator.comparing(IbanImportRowResponse::getLine));
+            logger.info("IBAN import by {}: {} accepted, {} duplicates, {} invalid",
+                    createdBy.getUsername(), accepted, duplicates, invalid);
+            return new IbanImportResponse(accepted, duplicates, invalid, rejected);
+        }
+    }
+}
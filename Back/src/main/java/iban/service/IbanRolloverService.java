@@ -0,0 +1,7 @@
+package iban.service;
+
+import iban.controller.dto.response.IbanRolloverResponse;
+
+public interface IbanRolloverService {
+    IbanRolloverResponse rollover(Integer sourceYear, Integer targetYear, boolean dryRun, String username);
+}
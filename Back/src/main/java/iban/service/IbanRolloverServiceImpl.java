@@ -0,0 +1,93 @@
+package iban.service;
+
+import iban.controller.dto.response.IbanRolloverResponse;
+import iban.exception.CustomException;
+import iban.repository.IbanBatchWriter;
+import iban.repository.UserRepository;
+import iban.repository.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Fiscal-year rollover: clones the IBANs of one year into the next with a single INSERT…SELECT
+ * instead of one createIban call per (eco code, locality).
+ */
+@Service
+public class IbanRolloverServiceImpl implements IbanRolloverService {
+    private static final Logger logger = LoggerFactory.getLogger(IbanRolloverServiceImpl.class);
+
+    static final int MAX_DIFFERENCES = 1_000;
+
+    private final IbanBatchWriter ibanBatchWriter;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public IbanRolloverServiceImpl(IbanBatchWriter ibanBatchWriter,
+                                   UserRepository userRepository,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.ibanBatchWriter = ibanBatchWriter;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public IbanRolloverResponse rollover(Integer sourceYear, Integer targetYear, boolean dryRun, String username) {
+        if (sourceYear == null) {
+            throw new CustomException("Anul sursă este obligatoriu", HttpStatus.BAD_REQUEST);
+        }
+        int target = targetYear != null ? targetYear : sourceYear + 1;
+        if (sourceYear < 2000 || sourceYear > 2099 || target < 2000 || target > 2099) {
+            throw new CustomException("Anul trebuie să fie între 2000 și 2099", HttpStatus.BAD_REQUEST);
+        }
+        if (target == sourceYear) {
+            throw new CustomException("Anul țintă trebuie să difere de anul sursă", HttpStatus.BAD_REQUEST);
+        }
+
+        User createdBy = userRepository.findByUsername(username)
+                .orElseThrow(() -> new CustomException("Utilizatorul nu a fost găsit", HttpStatus.NOT_FOUND));
+
+        long start = System.nanoTime();
+        IbanRolloverResponse response;
+        if (dryRun) {
+            response = ibanBatchWriter.previewCopyYear(sourceYear, target, MAX_DIFFERENCES);
+        } else {
+            // The copy is a single INSERT…SELECT; its update count is the only figure reported
+            int copied;
+            try {
+                copied = ibanBatchWriter.copyYear(sourceYear, target, createdBy.getId(), LocalDateTime.now());
+            } catch (DataIntegrityViolationException e) {
+                // An operator created one of the keys between the NOT EXISTS check and the insert
+                throw new CustomException("Anul țintă a fost modificat în timpul transferului, reîncercați",
+                        HttpStatus.CONFLICT);
+            }
+            response = new IbanRolloverResponse();
+            response.setSourceYear(sourceYear);
+            response.setTargetYear(target);
+            response.setDryRun(false);
+            response.setCopied((long) copied);
+            if (copied > 0) {
+                eventPublisher.publishEvent(new IbanChangedEvent(Set.of(target)));
+            }
+        }
+
+        logger.atInfo()
+                .addKeyValue("user", username)
+                .addKeyValue("sourceYear", sourceYear)
+                .addKeyValue("targetYear", target)
+                .addKeyValue("dryRun", dryRun)
+                .addKeyValue("copied", response.getCopied())
+                .addKeyValue("differing", response.getDiffering())
+                .addKeyValue("durationMs", (System.nanoTime() - start) / 1_000_000)
+                .log("IBAN year rollover");
+        return response;
+    }
+}
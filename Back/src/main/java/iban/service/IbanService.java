@@ -3,20 +3,24 @@ package iban.service;
 import iban.controller.dto.request.IbanFilterRequest;
 import iban.controller.dto.request.IbanRequest;
 import iban.controller.dto.response.EcoCodeResponse;
+import iban.controller.dto.response.IbanPageResponse;
 import iban.controller.dto.response.IbanResponse;
 import iban.controller.dto.response.LocalityResponse;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface IbanService {
     IbanResponse createIban(IbanRequest ibanRequest, String username);
-    IbanResponse updateIban(Long id, IbanRequest ibanRequest, String username);
+    IbanResponse updateIban(Long id, IbanRequest ibanRequest, String username, Long userId, Long expectedVersion);
     void deleteIban(Long id);
     IbanResponse getIbanById(Long id);
     List<IbanResponse> getAllIbans();
     List<IbanResponse> getIbansByFilters(IbanFilterRequest filterRequest);
+    IbanPageResponse getIbansPage(String cursor, Integer size);
+    IbanPageResponse getIbansPageByFilters(IbanFilterRequest filterRequest, String cursor, Integer size);
     List<IbanResponse> getIbansByRaion(String raionCode, Integer year);
-    byte[] exportAllIbansAsCsv();
+    long exportAllIbansAsCsv(OutputStream outputStream);
     List<EcoCodeResponse> getAllEcoCodes();
     List<LocalityResponse> getAllRaions();
     List<LocalityResponse> getLocalitiesByRaion(String raionCode);
@@ -3,236 +3,361 @@ package iban.service;
 import iban.controller.dto.request.IbanFilterRequest;
 import iban.controller.dto.request.IbanRequest;
 import iban.controller.dto.response.EcoCodeResponse;
+import iban.controller.dto.response.IbanPageResponse;
 import iban.controller.dto.response.IbanResponse;
 import iban.controller.dto.response.LocalityResponse;
 import iban.exception.CustomException;
-import iban.repository.EcoCodeRepository;
 import iban.repository.IbanRepository;
-import iban.repository.LocalityRepository;
+import iban.repository.IbanSpecifications;
 import iban.repository.UserRepository;
 import iban.repository.entity.EcoCode;
 import iban.repository.entity.Iban;
 import iban.repository.entity.Locality;
 import iban.repository.entity.User;
 import iban.util.CsvExporter;
+import iban.util.PageCursor;
 import iban.validator.IbanValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.Year;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "iban.service", histogram = true)
 public class IbanServiceImpl implements IbanService {
+    private static final Logger logger = LoggerFactory.getLogger(IbanServiceImpl.class);
+
+    // Upper bound for the non-paged /filter endpoint; larger result sets are rejected and must use /filter/page
+    static final int FILTER_MAX_RESULTS = 10_000;
+    // SQL Server accepts at most 2100 parameters per statement
+    static final int FILTER_MAX_CODES = 500;
 
     private final IbanRepository ibanRepository;
-    private final EcoCodeRepository ecoCodeRepository;
-    private final LocalityRepository localityRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final UserRepository userRepository;
     private final CsvExporter csvExporter;
     private final IbanValidator ibanValidator;
+    private final ApplicationEventPublisher eventPublisher;
 
     public IbanServiceImpl(IbanRepository ibanRepository,
-                           EcoCodeRepository ecoCodeRepository,
-                           LocalityRepository localityRepository,
+                           ReferenceDataCache referenceDataCache,
                            UserRepository userRepository,
                            CsvExporter csvExporter,
-                           IbanValidator ibanValidator) {
+                           IbanValidator ibanValidator,
+                           ApplicationEventPublisher eventPublisher) {
         this.ibanRepository = ibanRepository;
-        this.ecoCodeRepository = ecoCodeRepository;
-        this.localityRepository = localityRepository;
+        this.referenceDataCache = referenceDataCache;
         this.userRepository = userRepository;
         this.csvExporter = csvExporter;
         this.ibanValidator = ibanValidator;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     @Transactional
     public IbanResponse createIban(IbanRequest ibanRequest, String username) {
-        try {
+        long start = System.nanoTime();
+        logger.atDebug()
+                .addKeyValue("user", username)
+                .addKeyValue("request", ibanRequest)
+                .log("Create IBAN requested");
 
-            System.out.println("Primite date IBAN: " + ibanRequest);
-            System.out.println("Utilizator: " + username);
+        ibanValidator.validate(ibanRequest);
 
-            ibanValidator.validate(ibanRequest);
+        if (ibanRequest.getEcoCode() == null || ibanRequest.getEcoCode().isEmpty()) {
+            throw new CustomException("Codul Eco este obligatoriu", HttpStatus.BAD_REQUEST);
+        }
 
-            if (ibanRequest.getEcoCode() == null || ibanRequest.getEcoCode().isEmpty()) {
-                throw new CustomException("Codul Eco este obligatoriu", HttpStatus.BAD_REQUEST);
-            }
+        if (ibanRequest.getLocalityCode() == null || ibanRequest.getLocalityCode().isEmpty()) {
+            throw new CustomException("Codul Localității este obligatoriu", HttpStatus.BAD_REQUEST);
+        }
 
-            if (ibanRequest.getLocalityCode() == null || ibanRequest.getLocalityCode().isEmpty()) {
-                throw new CustomException("Codul Localității este obligatoriu", HttpStatus.BAD_REQUEST);
-            }
+        EcoCode ecoCode = referenceDataCache.findEcoCode(ibanRequest.getEcoCode())
+                .orElseThrow(() -> {
+                    logger.warn("Eco code not found: {}", ibanRequest.getEcoCode());
+                    return new CustomException("Codul Eco nu a fost găsit", HttpStatus.NOT_FOUND);
+                });
 
-            EcoCode ecoCode = ecoCodeRepository.findById(ibanRequest.getEcoCode())
-                    .orElseThrow(() -> {
-                        System.err.println("Cod Eco negăsit: " + ibanRequest.getEcoCode());
-                        return new CustomException("Codul Eco nu a fost găsit", HttpStatus.NOT_FOUND);
-                    });
-
-            Locality locality = localityRepository.findById(ibanRequest.getLocalityCode())
-                    .orElseThrow(() -> {
-                        System.err.println("Localitate negăsită: " + ibanRequest.getLocalityCode());
-                        return new CustomException("Localitatea nu a fost găsită", HttpStatus.NOT_FOUND);
-                    });
-
-            User createdBy = userRepository.findByUsername(username)
-                    .orElseThrow(() -> {
-                        System.err.println("Utilizator negăsit: " + username);
-                        return new CustomException("Utilizatorul nu a fost găsit", HttpStatus.NOT_FOUND);
-                    });
-
-            Year year = Year.of(ibanRequest.getYear());
-
-            Optional<Iban> existingIban = ibanRepository.findByYearAndEcoCodeAndLocality(year, ecoCode, locality);
-            if (existingIban.isPresent()) {
-                System.err.println("IBAN-ul există deja");
-                throw new CustomException("IBAN-ul există deja pentru acest an, cod eco și localitate", HttpStatus.CONFLICT);
-            }
+        Locality locality = referenceDataCache.findLocality(ibanRequest.getLocalityCode())
+                .orElseThrow(() -> {
+                    logger.warn("Locality not found: {}", ibanRequest.getLocalityCode());
+                    return new CustomException("Localitatea nu a fost găsită", HttpStatus.NOT_FOUND);
+                });
 
-            Iban iban = new Iban();
-            iban.setIbanCode(ibanRequest.getIbanCode().toUpperCase());
-            iban.setYear(year);
-            iban.setEcoCode(ecoCode);
-            iban.setLocality(locality);
-            iban.setCreatedBy(createdBy);
-            iban.setCreatedDate(LocalDateTime.now());
+        User createdBy = userRepository.findByUsername(username)
+                .orElseThrow(() -> {
+                    logger.warn("User not found: {}", username);
+                    return new CustomException("Utilizatorul nu a fost găsit", HttpStatus.NOT_FOUND);
+                });
 
-            Iban savedIban = ibanRepository.save(iban);
-            System.out.println("IBAN salvat cu succes: " + savedIban);
+        Year year = Year.of(ibanRequest.getYear());
 
-            return mapIbanToResponse(savedIban);
+        Iban iban = new Iban();
+        iban.setIbanCode(ibanRequest.getIbanCode().toUpperCase());
+        iban.setYear(year);
+        iban.setEcoCode(ecoCode);
+        iban.setLocality(locality);
+        iban.setCreatedBy(createdBy);
+        iban.setCreatedDate(LocalDateTime.now());
 
-        } catch (Exception e) {
-            System.err.println("Eroare generală la salvare IBAN: " + e.getMessage());
-            e.printStackTrace();
+        // The (year, eco_code, locality_code) unique index rejects duplicates, including concurrent ones
+        Iban savedIban;
+        try {
+            savedIban = ibanRepository.saveAndFlush(iban);
+        } catch (DataIntegrityViolationException e) {
+            if (isNaturalKeyViolation(e)) {
+                logger.atInfo()
+                        .addKeyValue("user", username)
+                        .addKeyValue("year", ibanRequest.getYear())
+                        .addKeyValue("ecoCode", ibanRequest.getEcoCode())
+                        .addKeyValue("localityCode", ibanRequest.getLocalityCode())
+                        .log("IBAN rejected: natural key already exists");
+                throw new CustomException("IBAN-ul există deja pentru acest an, cod eco și localitate", HttpStatus.CONFLICT);
+            }
             throw e;
         }
+        eventPublisher.publishEvent(new IbanChangedEvent(years(savedIban.getYearValue())));
+        logger.atInfo()
+                .addKeyValue("user", username)
+                .addKeyValue("ibanId", savedIban.getId())
+                .addKeyValue("durationMs", (System.nanoTime() - start) / 1_000_000)
+                .log("IBAN created");
+
+        return mapIbanToResponse(savedIban);
     }
 
     @Override
     @Transactional
-    public IbanResponse updateIban(Long id, IbanRequest ibanRequest, String username) {
+    public IbanResponse updateIban(Long id, IbanRequest ibanRequest, String username, Long userId, Long expectedVersion) {
         ibanValidator.validate(ibanRequest);
 
-        Iban iban = ibanRepository.findById(id)
-                .orElseThrow(() -> new CustomException("IBAN-ul nu a fost găsit", HttpStatus.NOT_FOUND));
-
-        EcoCode ecoCode = ecoCodeRepository.findById(ibanRequest.getEcoCode())
+        EcoCode ecoCode = referenceDataCache.findEcoCode(ibanRequest.getEcoCode())
                 .orElseThrow(() -> new CustomException("Codul Eco nu a fost găsit", HttpStatus.NOT_FOUND));
 
-        Locality locality = localityRepository.findById(ibanRequest.getLocalityCode())
+        Locality locality = referenceDataCache.findLocality(ibanRequest.getLocalityCode())
                 .orElseThrow(() -> new CustomException("Localitatea nu a fost găsită", HttpStatus.NOT_FOUND));
 
-        User updatedBy = userRepository.findByUsername(username)
-                .orElseThrow(() -> new CustomException("Utilizatorul nu a fost găsit", HttpStatus.NOT_FOUND));
+        // The editor comes from the token's uid claim; the UPDATE writes it as created_by without a lookup
+        if (userId == null) {
+            logger.warn("User id missing for {}", username);
+            throw new CustomException("Utilizatorul nu a fost găsit", HttpStatus.NOT_FOUND);
+        }
 
         Year year = Year.of(ibanRequest.getYear());
-
-
-        Optional<Iban> existingIban = ibanRepository.findByYearAndEcoCodeAndLocality(year, ecoCode, locality);
-        if (existingIban.isPresent() && !existingIban.get().getId().equals(id)) {
-            throw new CustomException("Un alt IBAN există deja pentru acest an, cod eco și localitate", HttpStatus.CONFLICT);
+        String ibanCode = ibanRequest.getIbanCode().toUpperCase();
+
+        // Most edits keep the year, so with If-Match the guarded UPDATE is the only statement
+        Integer previousYear = year.getValue();
+        Long version = expectedVersion;
+        int updated = expectedVersion != null
+                ? update(id, previousYear, version, ibanCode, year, ecoCode, locality, userId)
+                : 0;
+        if (updated == 0) {
+            IbanRepository.IbanVersionView current = ibanRepository.findVersionById(id)
+                    .orElseThrow(() -> new CustomException("IBAN-ul nu a fost găsit", HttpStatus.NOT_FOUND));
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                throw new CustomException("IBAN-ul a fost modificat între timp de alt utilizator",
+                        HttpStatus.PRECONDITION_FAILED);
+            }
+            previousYear = current.getYearValue();
+            version = current.getVersion();
+            if (update(id, previousYear, version, ibanCode, year, ecoCode, locality, userId) == 0) {
+                throw new CustomException("IBAN-ul a fost modificat între timp de alt utilizator",
+                        expectedVersion != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);
+            }
         }
+        eventPublisher.publishEvent(new IbanChangedEvent(years(previousYear, year.getValue())));
+        logger.atInfo()
+                .addKeyValue("user", username)
+                .addKeyValue("ibanId", id)
+                .addKeyValue("version", version + 1)
+                .log("IBAN updated");
+
+        // The row now holds exactly the request values; references come from the reference data cache
+        return mapIbanToResponse(Iban.builder()
+                .id(id)
+                .ibanCode(ibanCode)
+                .yearValue(year.getValue())
+                .year(year)
+                .ecoCode(ecoCode)
+                .locality(locality)
+                .version(version + 1)
+                .build());
+    }
 
-        iban.setIbanCode(ibanRequest.getIbanCode().toUpperCase());
-        iban.setYear(year);
-        iban.setEcoCode(ecoCode);
-        iban.setLocality(locality);
-        iban.setCreatedBy(updatedBy);
-
-        return mapIbanToResponse(ibanRepository.save(iban));
+    private int update(Long id, Integer expectedYear, Long expectedVersion, String ibanCode, Year year,
+                       EcoCode ecoCode, Locality locality, Long userId) {
+        try {
+            return ibanRepository.updateIfUnchanged(id, expectedYear, expectedVersion, ibanCode, year.getValue(),
+                    ecoCode.getCode(), locality.getCode(), userId);
+        } catch (DataIntegrityViolationException e) {
+            if (isNaturalKeyViolation(e)) {
+                throw new CustomException("Un alt IBAN există deja pentru acest an, cod eco și localitate", HttpStatus.CONFLICT);
+            }
+            throw e;
+        }
     }
 
     @Override
     @Transactional
     public void deleteIban(Long id) {
-        Iban iban = ibanRepository.findById(id)
+        // Only the year is read; the entity and its eager references are never loaded
+        IbanRepository.IbanVersionView current = ibanRepository.findVersionById(id)
                 .orElseThrow(() -> new CustomException("IBAN-ul nu a fost găsit", HttpStatus.NOT_FOUND));
 
-        ibanRepository.delete(iban);
+        if (ibanRepository.deleteByIds(List.of(id)) > 0) {
+            eventPublisher.publishEvent(new IbanChangedEvent(years(current.getYearValue())));
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public IbanResponse getIbanById(Long id) {
-        Iban iban = ibanRepository.findById(id)
+        return ibanRepository.findResponseById(id)
                 .orElseThrow(() -> new CustomException("IBAN-ul nu a fost găsit", HttpStatus.NOT_FOUND));
-
-        return mapIbanToResponse(iban);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<IbanResponse> getAllIbans() {
-        return ibanRepository.findAll().stream()
-                .map(this::mapIbanToResponse)
-                .collect(Collectors.toList());
+        return ibanRepository.findAllResponses();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<IbanResponse> getIbansByFilters(IbanFilterRequest filterRequest) {
-        if (filterRequest.getYear() != null && filterRequest.getEcoCode() != null && filterRequest.getLocalityCode() != null) {
-            Optional<Iban> iban = ibanRepository.findByYearAndEcoCodeAndLocalityCode(
-                    Year.of(filterRequest.getYear()),
-                    filterRequest.getEcoCode(),
-                    filterRequest.getLocalityCode());
-
-            return iban.map(value -> List.of(mapIbanToResponse(value)))
+        validateFilter(filterRequest);
+        if (isNaturalKeyLookup(filterRequest)) {
+            // Point lookup by natural id: served from the second-level cache without SQL when warm
+            return ibanRepository.findByNaturalId(
+                            Year.of(filterRequest.getYear()),
+                            IbanSpecifications.ecoCodes(filterRequest).orElseThrow().iterator().next(),
+                            IbanSpecifications.localityCodes(filterRequest).orElseThrow().iterator().next())
+                    .map(iban -> List.of(mapIbanToResponse(iban)))
                     .orElse(List.of());
-        } else if (filterRequest.getYear() != null && filterRequest.getRaionCode() != null) {
-            return ibanRepository.findByYearAndRaionCode(Year.of(filterRequest.getYear()), filterRequest.getRaionCode())
-                    .stream()
-                    .map(this::mapIbanToResponse)
-                    .collect(Collectors.toList());
-        } else if (filterRequest.getYear() != null) {
-            return ibanRepository.findByYear(Year.of(filterRequest.getYear()))
-                    .stream()
-                    .map(this::mapIbanToResponse)
-                    .collect(Collectors.toList());
-        } else {
-            return getAllIbans();
         }
+        // One row past the cap tells an oversized result apart without a separate COUNT
+        List<IbanResponse> responses = ibanRepository.findResponses(
+                IbanSpecifications.matching(filterRequest), 0L, FILTER_MAX_RESULTS + 1);
+        if (responses.size() > FILTER_MAX_RESULTS) {
+            throw new CustomException("Filtrul returnează peste " + FILTER_MAX_RESULTS
+                    + " de IBAN-uri; restrângeți filtrul sau folosiți /api/ibans/filter/page", HttpStatus.BAD_REQUEST);
+        }
+        return responses;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public IbanPageResponse getIbansPage(String cursor, Integer size) {
+        int pageSize = PageCursor.clampSize(size);
+        long afterId = PageCursor.decode(cursor);
+        return toPage(ibanRepository.findPageAfter(afterId, Limit.of(pageSize + 1)), pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public IbanPageResponse getIbansPageByFilters(IbanFilterRequest filterRequest, String cursor, Integer size) {
+        int pageSize = PageCursor.clampSize(size);
+        long afterId = PageCursor.decode(cursor);
+
+        if (isNaturalKeyLookup(filterRequest)) {
+            List<IbanResponse> items = afterId > 0 ? List.of() : getIbansByFilters(filterRequest);
+            return new IbanPageResponse(items, pageSize, null);
+        }
+        validateFilter(filterRequest);
+        return toPage(ibanRepository.findResponses(
+                IbanSpecifications.matching(filterRequest), afterId, pageSize + 1), pageSize);
+    }
+
+    static void validateFilter(IbanFilterRequest filterRequest) {
+        if (filterRequest.getYearFrom() != null && filterRequest.getYearTo() != null
+                && filterRequest.getYearFrom() > filterRequest.getYearTo()) {
+            throw new CustomException("Intervalul de ani este invalid", HttpStatus.BAD_REQUEST);
+        }
+        if (codeCount(IbanSpecifications.ecoCodes(filterRequest)) > FILTER_MAX_CODES
+                || codeCount(IbanSpecifications.localityCodes(filterRequest)) > FILTER_MAX_CODES
+                || codeCount(IbanSpecifications.raionCodes(filterRequest)) > FILTER_MAX_CODES) {
+            throw new CustomException("Prea multe coduri în filtru (maxim " + FILTER_MAX_CODES + ")", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Exactly one year, eco code and locality and nothing else: the (year, eco_code, locality_code) natural id
+    private boolean isNaturalKeyLookup(IbanFilterRequest filterRequest) {
+        return filterRequest.getYear() != null
+                && filterRequest.getYearFrom() == null
+                && filterRequest.getYearTo() == null
+                && codeCount(IbanSpecifications.ecoCodes(filterRequest)) == 1
+                && codeCount(IbanSpecifications.localityCodes(filterRequest)) == 1
+                && IbanSpecifications.raionCodes(filterRequest).isEmpty();
+    }
+
+    private static int codeCount(Optional<Set<String>> codes) {
+        return codes.map(Set::size).orElse(0);
+    }
+
+    private IbanPageResponse toPage(List<IbanResponse> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<IbanResponse> items = hasMore ? List.copyOf(rows.subList(0, pageSize)) : rows;
+
+        String nextCursor = hasMore ? PageCursor.encode(items.get(items.size() - 1).getId()) : null;
+        return new IbanPageResponse(items, pageSize, nextCursor);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<IbanResponse> getIbansByRaion(String raionCode, Integer year) {
-        return ibanRepository.findByYearAndRaionCode(Year.of(year), raionCode)
-                .stream()
-                .map(this::mapIbanToResponse)
-                .collect(Collectors.toList());
+        return ibanRepository.findResponsesByYearAndRaionCode(Year.of(year), raionCode);
     }
 
     @Override
-    public byte[] exportAllIbansAsCsv() {
-        List<IbanResponse> ibans = getAllIbans();
-        return csvExporter.exportIbansToCsv(ibans);
+    @Transactional(readOnly = true)
+    public long exportAllIbansAsCsv(OutputStream outputStream) {
+        try (Stream<IbanResponse> ibans = ibanRepository.streamAllResponses()) {
+            return csvExporter.writeIbansCsv(ibans, outputStream);
+        }
     }
 
     @Override
     public List<EcoCodeResponse> getAllEcoCodes() {
-        return ecoCodeRepository.findAll().stream()
-                .map(this::mapEcoCodeToResponse)
-                .collect(Collectors.toList());
+        return referenceDataCache.getEcoCodes();
     }
 
     @Override
     public List<LocalityResponse> getAllRaions() {
-        return localityRepository.findAllRaions().stream()
-                .map(this::mapLocalityToResponse)
-                .collect(Collectors.toList());
+        return referenceDataCache.getRaions();
     }
 
     @Override
     public List<LocalityResponse> getLocalitiesByRaion(String raionCode) {
-        return localityRepository.findAllByRaionCode(raionCode).stream()
-                .map(this::mapLocalityToResponse)
-                .collect(Collectors.toList());
+        return referenceDataCache.getLocalitiesByRaion(raionCode);
+    }
+
+    // A null year (not expected for persisted rows) makes the listeners treat the change as unknown
+    private static Set<Integer> years(Integer... years) {
+        return new HashSet<>(Arrays.asList(years));
     }
 
-    private IbanResponse mapIbanToResponse(Iban iban) {
+    private static boolean isNaturalKeyViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toUpperCase().contains(Iban.NATURAL_KEY_CONSTRAINT.toUpperCase());
+    }
+
+    IbanResponse mapIbanToResponse(Iban iban) {
         IbanResponse response = new IbanResponse();
         response.setId(iban.getId());
         response.setIbanCode(iban.getIbanCode());
@@ -241,33 +366,18 @@ public class IbanServiceImpl implements IbanService {
         response.setEcoLabel(iban.getEcoCode().getLabel());
         response.setLocalityCode(iban.getLocality().getCode());
         response.setLocalityName(iban.getLocality().getName());
+        response.setVersion(iban.getVersion());
 
-        if (iban.getLocality().getParent() != null) {
-            response.setRaionCode(iban.getLocality().getParent().getCode());
-            response.setRaionName(iban.getLocality().getParent().getName());
-        } else if (iban.getLocality().getIsRaion()) {
-            response.setRaionCode(iban.getLocality().getCode());
-            response.setRaionName(iban.getLocality().getName());
+        // Same raion as RESPONSE_SELECT: the nearest ancestor (or the locality itself) flagged as raion
+        Locality raion = iban.getLocality();
+        while (raion != null && !Boolean.TRUE.equals(raion.getIsRaion())) {
+            raion = raion.getParent();
         }
-
-        return response;
-    }
-
-    private EcoCodeResponse mapEcoCodeToResponse(EcoCode ecoCode) {
-        return new EcoCodeResponse(ecoCode.getCode(), ecoCode.getLabel());
-    }
-
-    private LocalityResponse mapLocalityToResponse(Locality locality) {
-        LocalityResponse response = new LocalityResponse();
-        response.setCode(locality.getCode());
-        response.setName(locality.getName());
-        response.setIsRaion(locality.getIsRaion());
-
-        if (locality.getParent() != null) {
-            response.setParentCode(locality.getParent().getCode());
-            response.setParentName(locality.getParent().getName());
+        if (raion != null) {
+            response.setRaionCode(raion.getCode());
+            response.setRaionName(raion.getName());
         }
 
         return response;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package iban.service;
+
+import iban.controller.dto.response.IbanCountResponse;
+
+import java.util.List;
+
+public interface IbanStatisticsService {
+    List<IbanCountResponse> countIbans(List<String> groupBy, Integer yearFrom, Integer yearTo);
+}
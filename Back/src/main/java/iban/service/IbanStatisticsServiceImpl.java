@@ -0,0 +1,159 @@
+package iban.service;
+
+import iban.controller.dto.response.IbanCountResponse;
+import iban.exception.CustomException;
+import iban.repository.IbanCountDimension;
+import iban.repository.IbanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IBAN counts per raion, year and eco code. Years before the current one are closed and their
+ * counts only change through corrections, so they are computed once per grouping and kept until
+ * an {@link IbanChangedEvent} touches a closed year; the open years are always read from the database.
+ */
+@Service
+public class IbanStatisticsServiceImpl implements IbanStatisticsService {
+    private static final Logger logger = LoggerFactory.getLogger(IbanStatisticsServiceImpl.class);
+
+    private static final Comparator<IbanCountResponse> ORDER = Comparator
+            .comparing(IbanCountResponse::getRaionCode, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(IbanCountResponse::getYear, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(IbanCountResponse::getEcoCode, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final IbanRepository ibanRepository;
+
+    private final Map<ClosedYearsKey, List<IbanCountResponse>> closedYears = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a query that raced with a write does not repopulate stale counts
+    private final AtomicLong generation = new AtomicLong();
+
+    public IbanStatisticsServiceImpl(IbanRepository ibanRepository) {
+        this.ibanRepository = ibanRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<IbanCountResponse> countIbans(List<String> groupBy, Integer yearFrom, Integer yearTo) {
+        Set<IbanCountDimension> dimensions = parseDimensions(groupBy);
+        if (yearFrom != null && yearTo != null && yearFrom > yearTo) {
+            throw new CustomException("Intervalul de ani este invalid", HttpStatus.BAD_REQUEST);
+        }
+
+        // Closed and open years are counted per year and merged; YEAR is dropped again at the end if not requested
+        Set<IbanCountDimension> perYear = EnumSet.copyOf(dimensions);
+        perYear.add(IbanCountDimension.YEAR);
+
+        int currentYear = Year.now().getValue();
+        List<IbanCountResponse> rows = new ArrayList<>();
+        if (yearFrom == null || yearFrom < currentYear) {
+            for (IbanCountResponse row : closedYears(perYear, currentYear)) {
+                if ((yearFrom == null || row.getYear() >= yearFrom) && (yearTo == null || row.getYear() <= yearTo)) {
+                    rows.add(row);
+                }
+            }
+        }
+        if (yearTo == null || yearTo >= currentYear) {
+            int openFrom = yearFrom == null ? currentYear : Math.max(yearFrom, currentYear);
+            rows.addAll(ibanRepository.countBy(perYear, openFrom, yearTo));
+        }
+
+        if (dimensions.contains(IbanCountDimension.YEAR)) {
+            return sorted(rows);
+        }
+        List<IbanCountResponse> totals = withoutYear(rows);
+        if (dimensions.isEmpty() && totals.isEmpty()) {
+            return List.of(new IbanCountResponse(null, null, null, null, 0L));
+        }
+        return totals;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIbanChanged(IbanChangedEvent event) {
+        int currentYear = Year.now().getValue();
+        boolean closedYearTouched = event.years().isEmpty()
+                || event.years().stream().anyMatch(year -> year == null || year < currentYear);
+        if (closedYearTouched) {
+            generation.incrementAndGet();
+            closedYears.clear();
+            logger.atDebug().addKeyValue("years", event.years()).log("IBAN statistics cache invalidated");
+        }
+    }
+
+    private List<IbanCountResponse> closedYears(Set<IbanCountDimension> dimensions, int currentYear) {
+        ClosedYearsKey key = new ClosedYearsKey(dimensions, currentYear);
+        List<IbanCountResponse> cached = closedYears.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long before = generation.get();
+        List<IbanCountResponse> rows = List.copyOf(ibanRepository.countBy(dimensions, null, currentYear - 1));
+        closedYears.put(key, rows);
+        if (generation.get() != before) {
+            closedYears.remove(key, rows);
+        }
+        return rows;
+    }
+
+    private static Set<IbanCountDimension> parseDimensions(List<String> groupBy) {
+        Set<IbanCountDimension> dimensions = EnumSet.noneOf(IbanCountDimension.class);
+        if (groupBy == null) {
+            return dimensions;
+        }
+        for (String name : groupBy) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            String normalized = name.trim().replace('-', '_').toUpperCase(Locale.ROOT);
+            try {
+                dimensions.add(IbanCountDimension.valueOf(normalized));
+            } catch (IllegalArgumentException e) {
+                throw new CustomException("Criteriu de grupare necunoscut: " + name, HttpStatus.BAD_REQUEST);
+            }
+        }
+        return dimensions;
+    }
+
+    private static List<IbanCountResponse> sorted(List<IbanCountResponse> rows) {
+        List<IbanCountResponse> result = new ArrayList<>(rows);
+        result.sort(ORDER);
+        return result;
+    }
+
+    private static List<IbanCountResponse> withoutYear(List<IbanCountResponse> rows) {
+        Map<List<String>, IbanCountResponse> totals = new LinkedHashMap<>();
+        for (IbanCountResponse row : rows) {
+            List<String> key = Arrays.asList(row.getRaionCode(), row.getEcoCode());
+            IbanCountResponse total = totals.computeIfAbsent(key, k ->
+                    new IbanCountResponse(row.getRaionCode(), row.getRaionName(), null, row.getEcoCode(), 0L));
+            total.setCount(total.getCount() + row.getCount());
+        }
+        List<IbanCountResponse> result = new ArrayList<>(totals.values());
+        result.sort(ORDER);
+        return result;
+    }
+
+    private record ClosedYearsKey(Set<IbanCountDimension> dimensions, int currentYear) {
+        private ClosedYearsKey {
+            dimensions = Set.copyOf(Objects.requireNonNull(dimensions));
+        }
+    }
+}
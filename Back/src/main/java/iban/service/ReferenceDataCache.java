@@ -0,0 +1,208 @@
+package iban.service;
+
+import iban.controller.dto.response.EcoCodeResponse;
+import iban.controller.dto.response.LocalityResponse;
+import iban.controller.dto.response.ReferenceDataStatsResponse;
+import iban.repository.EcoCodeRepository;
+import iban.repository.LocalityRepository;
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Locality;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable in-memory copy of the eco code and locality nomenclatures. Readers always see a
+ * complete snapshot; {@link #refresh()} builds a new one and swaps it in atomically.
+ * Codes missing from the snapshot fall back to the database and are counted as misses.
+ * Each snapshot carries a version that only moves when a refresh actually changed the content.
+ */
+@Component
+public class ReferenceDataCache {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private final EcoCodeRepository ecoCodeRepository;
+    private final LocalityRepository localityRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer refreshes;
+
+    public ReferenceDataCache(EcoCodeRepository ecoCodeRepository, LocalityRepository localityRepository,
+                              MeterRegistry meterRegistry) {
+        this.ecoCodeRepository = ecoCodeRepository;
+        this.localityRepository = localityRepository;
+        this.hits = meterRegistry.counter("iban.reference_data.lookups", "result", "hit");
+        this.misses = meterRegistry.counter("iban.reference_data.lookups", "result", "miss");
+        this.refreshes = meterRegistry.timer("iban.reference_data.refresh");
+        Gauge.builder("iban.reference_data.size", snapshot, ref -> ref.get() != null ? ref.get().localities.size() : 0)
+                .tag("nomenclature", "localities")
+                .register(meterRegistry);
+        Gauge.builder("iban.reference_data.size", snapshot, ref -> ref.get() != null ? ref.get().ecoCodes.size() : 0)
+                .tag("nomenclature", "eco_codes")
+                .register(meterRegistry);
+    }
+
+    public Optional<EcoCode> findEcoCode(String code) {
+        EcoCode ecoCode = current().ecoCodes.get(code);
+        if (ecoCode != null) {
+            hits.increment();
+            return Optional.of(ecoCode);
+        }
+        misses.increment();
+        return ecoCodeRepository.findById(code);
+    }
+
+    public Optional<Locality> findLocality(String code) {
+        Locality locality = current().localities.get(code);
+        if (locality != null) {
+            hits.increment();
+            return Optional.of(locality);
+        }
+        misses.increment();
+        return localityRepository.findById(code);
+    }
+
+    public List<EcoCodeResponse> getEcoCodes() {
+        hits.increment();
+        return current().ecoCodeResponses;
+    }
+
+    public List<LocalityResponse> getRaions() {
+        hits.increment();
+        return current().raions;
+    }
+
+    public List<LocalityResponse> getLocalitiesByRaion(String raionCode) {
+        hits.increment();
+        return current().childrenByParent.getOrDefault(raionCode, List.of());
+    }
+
+    public long getVersion() {
+        return current().version;
+    }
+
+    @Scheduled(initialDelayString = "${app.referenceData.refreshMs:900000}",
+            fixedDelayString = "${app.referenceData.refreshMs:900000}")
+    public synchronized void refresh() {
+        long start = System.nanoTime();
+
+        List<EcoCode> ecoCodes = new ArrayList<>(ecoCodeRepository.findAll());
+        ecoCodes.sort(Comparator.comparing(EcoCode::getCode));
+        List<Locality> localities = new ArrayList<>(localityRepository.findAllWithParent());
+        localities.sort(Comparator.comparing(Locality::getCode));
+
+        Map<String, EcoCode> ecoCodesByCode = new HashMap<>();
+        List<EcoCodeResponse> ecoCodeResponses = new ArrayList<>(ecoCodes.size());
+        for (EcoCode ecoCode : ecoCodes) {
+            ecoCodesByCode.put(ecoCode.getCode(), ecoCode);
+            ecoCodeResponses.add(new EcoCodeResponse(ecoCode.getCode(), ecoCode.getLabel()));
+        }
+
+        Map<String, Locality> localitiesByCode = new HashMap<>();
+        List<LocalityResponse> raions = new ArrayList<>();
+        List<LocalityResponse> localityResponses = new ArrayList<>(localities.size());
+        Map<String, List<LocalityResponse>> childrenByParent = new HashMap<>();
+        for (Locality locality : localities) {
+            localitiesByCode.put(locality.getCode(), locality);
+            LocalityResponse response = mapLocalityToResponse(locality);
+            localityResponses.add(response);
+            if (Boolean.TRUE.equals(locality.getIsRaion())) {
+                raions.add(response);
+            }
+            if (locality.getParent() != null) {
+                childrenByParent.computeIfAbsent(locality.getParent().getCode(), k -> new ArrayList<>()).add(response);
+            }
+        }
+        childrenByParent.replaceAll((code, children) -> List.copyOf(children));
+
+        Snapshot previous = snapshot.get();
+        boolean changed = previous == null
+                || !previous.ecoCodeResponses.equals(ecoCodeResponses)
+                || !previous.localityResponses.equals(localityResponses);
+        long version = previous == null ? 1 : previous.version + (changed ? 1 : 0);
+
+        Snapshot next = new Snapshot(
+                Map.copyOf(ecoCodesByCode),
+                Map.copyOf(localitiesByCode),
+                List.copyOf(ecoCodeResponses),
+                List.copyOf(localityResponses),
+                List.copyOf(raions),
+                Map.copyOf(childrenByParent),
+                version,
+                Instant.now(),
+                (System.nanoTime() - start) / 1_000_000);
+        snapshot.set(next);
+        refreshes.record(next.loadMillis, TimeUnit.MILLISECONDS);
+
+        logger.info("Reference data refreshed: {} eco codes, {} localities in {} ms",
+                ecoCodes.size(), localities.size(), next.loadMillis);
+    }
+
+    public ReferenceDataStatsResponse getStats() {
+        Snapshot current = snapshot.get();
+        return new ReferenceDataStatsResponse(
+                current != null ? current.ecoCodes.size() : 0,
+                current != null ? current.localities.size() : 0,
+                (long) hits.count(),
+                (long) misses.count(),
+                refreshes.count(),
+                current != null ? current.loadedAt : null,
+                current != null ? current.loadMillis : null);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot.get();
+                if (current == null) {
+                    refresh();
+                    current = snapshot.get();
+                }
+            }
+        }
+        return current;
+    }
+
+    private LocalityResponse mapLocalityToResponse(Locality locality) {
+        LocalityResponse response = new LocalityResponse();
+        response.setCode(locality.getCode());
+        response.setName(locality.getName());
+        response.setIsRaion(locality.getIsRaion());
+
+        if (locality.getParent() != null) {
+            response.setParentCode(locality.getParent().getCode());
+            response.setParentName(locality.getParent().getName());
+        }
+
+        return response;
+    }
+
+    private record Snapshot(Map<String, EcoCode> ecoCodes,
+                            Map<String, Locality> localities,
+                            List<EcoCodeResponse> ecoCodeResponses,
+                            List<LocalityResponse> localityResponses,
+                            List<LocalityResponse> raions,
+                            Map<String, List<LocalityResponse>> childrenByParent,
+                            long version,
+                            Instant loadedAt,
+                            long loadMillis) {
+    }
+}
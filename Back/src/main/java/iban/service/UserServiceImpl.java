@@ -9,33 +9,42 @@ import iban.repository.UserRepository;
 import iban.repository.entity.Locality;
 import iban.repository.entity.Role;
 import iban.repository.entity.User;
+import iban.security.TokenVersionRegistry;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "user.service", histogram = true)
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final LocalityRepository localityRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     public UserServiceImpl(UserRepository userRepository,
                            RoleRepository roleRepository,
                            LocalityRepository localityRepository,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordEncoder passwordEncoder,
+                           TokenVersionRegistry tokenVersionRegistry) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.localityRepository = localityRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
     @Override
@@ -126,10 +135,17 @@ public class UserServiceImpl implements UserService {
             throw new CustomException("Email is already in use!", HttpStatus.BAD_REQUEST);
         }
 
+        // Snapshot what access tokens carry, to revoke them if any of it changes
+        String previousUsername = user.getUsername();
+        String previousRaion = user.getRaion() != null ? user.getRaion().getCode() : null;
+        Set<Role.ERole> previousRoles = roleNames(user);
+        boolean passwordChanged = false;
+
         user.setUsername(userRequest.getUsername());
         // Update password only if provided
         if (userRequest.getPassword() != null && !userRequest.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(userRequest.getPassword()));
+            passwordChanged = true;
         }
         user.setFullName(userRequest.getFullName());
         user.setEmail(userRequest.getEmail());
@@ -176,7 +192,21 @@ public class UserServiceImpl implements UserService {
             user.setRoles(roles);
         }
 
+        String currentRaion = user.getRaion() != null ? user.getRaion().getCode() : null;
+        boolean revokeTokens = passwordChanged
+                || !previousUsername.equals(user.getUsername())
+                || !Objects.equals(previousRaion, currentRaion)
+                || !previousRoles.equals(roleNames(user));
+        if (revokeTokens) {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+
         User updatedUser = userRepository.save(user);
+        if (revokeTokens) {
+            Long userId = updatedUser.getId();
+            int tokenVersion = updatedUser.getTokenVersion();
+            afterCommit(() -> tokenVersionRegistry.update(userId, tokenVersion));
+        }
         return mapUserToResponse(updatedUser);
     }
 
@@ -187,9 +217,11 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
 
         userRepository.delete(user);
+        afterCommit(() -> tokenVersionRegistry.revoke(id));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
@@ -198,6 +230,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserResponse getUserByUsername(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
@@ -206,12 +239,33 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(this::mapUserToResponse)
                 .collect(Collectors.toList());
     }
 
+    // The registry is shared by all requests, so it must not see a version the transaction may still roll back
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Set<Role.ERole> roleNames(User user) {
+        return user.getRoles().stream()
+                .map(Role::getName)
+                .collect(Collectors.toSet());
+    }
+
     private UserResponse mapUserToResponse(User user) {
         Set<String> roles = user.getRoles().stream()
                 .map(role -> role.getName().name())
@@ -3,44 +3,79 @@ package iban.util;
 import iban.controller.dto.response.IbanResponse;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Component
 public class CsvExporter {
 
-    public byte[] exportIbansToCsv(List<IbanResponse> ibans) {
-        String[] csvHeader = {
-                "ID", "IBAN Code", "Year", "Eco Code", "Eco Label",
-                "Locality Code", "Locality Name", "Raion Code", "Raion Name"
-        };
+    private static final String[] CSV_HEADER = {
+            "ID", "IBAN Code", "Year", "Eco Code", "Eco Label",
+            "Locality Code", "Locality Name", "Raion Code", "Raion Name"
+    };
+
+    private static final int BUFFER_SIZE = 16 * 1024;
 
+    public byte[] exportIbansToCsv(List<IbanResponse> ibans) {
         ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writeIbansCsv(ibans.stream(), stream);
+        return stream.toByteArray();
+    }
 
-        try (PrintWriter writer = new PrintWriter(stream)) {
-
-            writer.println(String.join(",", csvHeader));
-
-
-            for (IbanResponse iban : ibans) {
-                writer.println(
-                        String.join(",",
-                                String.valueOf(iban.getId()),
-                                iban.getIbanCode(),
-                                String.valueOf(iban.getYear()),
-                                iban.getEcoCode(),
-                                escapeSpecialCharacters(iban.getEcoLabel()),
-                                iban.getLocalityCode(),
-                                escapeSpecialCharacters(iban.getLocalityName()),
-                                iban.getRaionCode() != null ? iban.getRaionCode() : "",
-                                iban.getRaionName() != null ? escapeSpecialCharacters(iban.getRaionName()) : ""
-                        )
-                );
+    /**
+     * Writes the CSV row by row to {@code outputStream}. Only a fixed-size buffer is held,
+     * so memory does not depend on the number of rows. The stream is flushed but not closed.
+     *
+     * @return the number of data rows written
+     */
+    public long writeIbansCsv(Stream<IbanResponse> ibans, OutputStream outputStream) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write(System.lineSeparator());
+
+            long rows = 0;
+            Iterator<IbanResponse> iterator = ibans.iterator();
+            while (iterator.hasNext()) {
+                writeRow(writer, iterator.next());
+                rows++;
             }
+
+            writer.flush();
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        return stream.toByteArray();
+    private void writeRow(Writer writer, IbanResponse iban) throws IOException {
+        writer.write(String.valueOf(iban.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(iban.getIbanCode()));
+        writer.write(',');
+        writer.write(String.valueOf(iban.getYear()));
+        writer.write(',');
+        writer.write(String.valueOf(iban.getEcoCode()));
+        writer.write(',');
+        writer.write(escapeSpecialCharacters(iban.getEcoLabel()));
+        writer.write(',');
+        writer.write(String.valueOf(iban.getLocalityCode()));
+        writer.write(',');
+        writer.write(escapeSpecialCharacters(iban.getLocalityName()));
+        writer.write(',');
+        writer.write(iban.getRaionCode() != null ? iban.getRaionCode() : "");
+        writer.write(',');
+        writer.write(escapeSpecialCharacters(iban.getRaionName()));
+        writer.write(System.lineSeparator());
     }
 
     private String escapeSpecialCharacters(String data) {
@@ -53,4 +88,4 @@ public class CsvExporter {
         }
         return escapedData;
     }
-}
\ No newline at end of file
+}
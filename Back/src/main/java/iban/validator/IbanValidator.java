@@ -6,52 +6,134 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 
 @Component
 public class IbanValidator {
 
-    private static final Pattern STARTS_WITH_MD = Pattern.compile("^MD.*$");
-    private static final Pattern UPPERCASE_ALPHANUMERIC = Pattern.compile("^[A-Z0-9]*$");
-    private static final Pattern LAST_14_DIGITS = Pattern.compile(".*\\d{14}$");
-
-    public void validate(IbanRequest request) {
-        List<String> errors = new ArrayList<>();
+    public static final int VALID = 0;
+    public static final int ERR_EMPTY = 1;
+    public static final int ERR_LENGTH = 1 << 1;
+    public static final int ERR_PREFIX = 1 << 2;
+    public static final int ERR_CHARSET = 1 << 3;
+    public static final int ERR_TRAILING_DIGITS = 1 << 4;
+    public static final int ERR_CHECKSUM = 1 << 5;
 
+    private static final int IBAN_LENGTH = 24;
+    private static final int TRAILING_DIGITS = 14;
 
+    public void validate(IbanRequest request) {
         String ibanCode = request.getIbanCode();
 
-        if (ibanCode == null || ibanCode.isEmpty()) {
-            errors.add("IBAN code cannot be empty");
-        } else {
+        int errors = check(ibanCode);
+        if (errors != VALID) {
+            throw new ValidationException("IBAN validation failed: " + String.join(", ", describe(errors)));
+        }
 
-            ibanCode = ibanCode.toUpperCase();
-            request.setIbanCode(ibanCode);
+        if (hasLowerCase(ibanCode)) {
+            request.setIbanCode(ibanCode.toUpperCase());
+        }
+    }
 
+    /**
+     * Checks a Moldovan IBAN in a single pass over its characters, lower case accepted.
+     * The ISO 13616 mod-97 checksum is computed incrementally on the rearranged number
+     * (country code and check digits moved to the end) without building it as a string.
+     *
+     * @return {@link #VALID} or a bitmask of the {@code ERR_*} flags
+     */
+    public static int check(CharSequence iban) {
+        if (iban == null || iban.length() == 0) {
+            return ERR_EMPTY;
+        }
 
-            if (ibanCode.length() != 24) {
-                errors.add("IBAN must be exactly 24 characters long");
-            }
+        int length = iban.length();
+        int errors = length != IBAN_LENGTH ? ERR_LENGTH : VALID;
+        int digitsFrom = length - TRAILING_DIGITS;
 
+        int headRemainder = 0;
+        int headDigits = 0;
+        int tailRemainder = 0;
 
-            if (!STARTS_WITH_MD.matcher(ibanCode).matches()) {
-                errors.add("IBAN must start with 'MD'");
+        for (int i = 0; i < length; i++) {
+            char c = iban.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                c = (char) (c - ('a' - 'A'));
             }
 
+            if (i == 0 && c != 'M' || i == 1 && c != 'D') {
+                errors |= ERR_PREFIX;
+            }
 
-            if (!UPPERCASE_ALPHANUMERIC.matcher(ibanCode).matches()) {
-                errors.add("IBAN must contain only uppercase letters and digits");
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if (c >= 'A' && c <= 'Z') {
+                value = c - 'A' + 10;
+                if (i >= digitsFrom) {
+                    errors |= ERR_TRAILING_DIGITS;
+                }
+            } else {
+                errors |= ERR_CHARSET;
+                if (i >= digitsFrom) {
+                    errors |= ERR_TRAILING_DIGITS;
+                }
+                continue;
             }
 
+            if (i < 4) {
+                headRemainder = value < 10 ? (headRemainder * 10 + value) % 97 : (headRemainder * 100 + value) % 97;
+                headDigits += value < 10 ? 1 : 2;
+            } else {
+                tailRemainder = value < 10 ? (tailRemainder * 10 + value) % 97 : (tailRemainder * 100 + value) % 97;
+            }
+        }
+        if (length < 2) {
+            errors |= ERR_PREFIX;
+        }
 
-            if (!LAST_14_DIGITS.matcher(ibanCode).matches()) {
-                errors.add("Last 14 characters of IBAN must be digits");
+        if ((errors & (ERR_LENGTH | ERR_CHARSET)) == 0) {
+            int remainder = tailRemainder;
+            for (int d = 0; d < headDigits; d++) {
+                remainder = remainder * 10 % 97;
+            }
+            if ((remainder + headRemainder) % 97 != 1) {
+                errors |= ERR_CHECKSUM;
             }
         }
 
+        return errors;
+    }
 
-        if (!errors.isEmpty()) {
-            throw new ValidationException("IBAN validation failed: " + String.join(", ", errors));
+    public static List<String> describe(int errors) {
+        List<String> messages = new ArrayList<>();
+        if ((errors & ERR_EMPTY) != 0) {
+            messages.add("IBAN code cannot be empty");
+        }
+        if ((errors & ERR_LENGTH) != 0) {
+            messages.add("IBAN must be exactly 24 characters long");
+        }
+        if ((errors & ERR_PREFIX) != 0) {
+            messages.add("IBAN must start with 'MD'");
+        }
+        if ((errors & ERR_CHARSET) != 0) {
+            messages.add("IBAN must contain only uppercase letters and digits");
+        }
+        if ((errors & ERR_TRAILING_DIGITS) != 0) {
+            messages.add("Last 14 characters of IBAN must be digits");
+        }
+        if ((errors & ERR_CHECKSUM) != 0) {
+            messages.add("IBAN check digits are invalid");
+        }
+        return messages;
+    }
+
+    private static boolean hasLowerCase(String ibanCode) {
+        for (int i = 0; i < ibanCode.length(); i++) {
+            char c = ibanCode.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                return true;
+            }
         }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+-- Incremental maintenance of locality_ancestors (V5): only the subtrees under inserted, updated
+-- or deleted localities are rebuilt. T-SQL, so it lives in the SQL Server location.
+CREATE TRIGGER TR_Location_ancestors ON Location
+AFTER INSERT, UPDATE, DELETE
+AS
+BEGIN
+    SET NOCOUNT ON;
+
+    IF NOT EXISTS (SELECT 1 FROM inserted) AND NOT EXISTS (SELECT 1 FROM deleted)
+        RETURN;
+
+    DECLARE @affected TABLE (code NVARCHAR(50) PRIMARY KEY);
+
+    INSERT INTO @affected (code)
+    SELECT a.locality_code
+    FROM locality_ancestors a
+    WHERE a.ancestor_code IN (SELECT Code FROM deleted UNION SELECT Code FROM inserted)
+    UNION
+    SELECT Code FROM inserted
+    UNION
+    SELECT Code FROM deleted;
+
+    DELETE a
+    FROM locality_ancestors a
+    JOIN @affected x ON x.code = a.locality_code;
+
+    WITH tree AS (
+        SELECT l.Code AS locality_code, l.Code AS ancestor_code, 0 AS depth
+        FROM Location l
+        JOIN @affected x ON x.code = l.Code
+        UNION ALL
+        SELECT t.locality_code, p.parent_code, t.depth + 1
+        FROM tree t
+        JOIN Location p ON p.Code = t.ancestor_code
+        WHERE p.parent_code IS NOT NULL
+    )
+    INSERT INTO locality_ancestors (ancestor_code, locality_code, depth)
+    SELECT ancestor_code, locality_code, depth
+    FROM tree
+    OPTION (MAXRECURSION 100);
+END;
@@ -0,0 +1,59 @@
+-- Baseline schema. Databases created before Flyway are baselined at version 1 and skip this script.
+CREATE TABLE Location (
+    Code NVARCHAR(50) NOT NULL,
+    Title NVARCHAR(255) NOT NULL,
+    CityHallCode NVARCHAR(50),
+    StsOfficeCode NVARCHAR(50),
+    parent_code NVARCHAR(50),
+    is_raion BIT NOT NULL DEFAULT 0,
+    CONSTRAINT PK_Location PRIMARY KEY (Code),
+    CONSTRAINT FK_Location_parent FOREIGN KEY (parent_code) REFERENCES Location (Code)
+);
+
+CREATE TABLE eco_codes (
+    code NVARCHAR(50) NOT NULL,
+    label NVARCHAR(500) NOT NULL,
+    CONSTRAINT PK_eco_codes PRIMARY KEY (code)
+);
+
+CREATE TABLE roles (
+    id BIGINT IDENTITY(1,1) NOT NULL,
+    name VARCHAR(20),
+    CONSTRAINT PK_roles PRIMARY KEY (id),
+    CONSTRAINT UX_roles_name UNIQUE (name)
+);
+
+CREATE TABLE users (
+    id BIGINT IDENTITY(1,1) NOT NULL,
+    username NVARCHAR(50) NOT NULL,
+    password NVARCHAR(255) NOT NULL,
+    full_name NVARCHAR(255) NOT NULL,
+    email NVARCHAR(255) NOT NULL,
+    raion_code NVARCHAR(50),
+    CONSTRAINT PK_users PRIMARY KEY (id),
+    CONSTRAINT UX_users_username UNIQUE (username),
+    CONSTRAINT UX_users_email UNIQUE (email),
+    CONSTRAINT FK_users_raion FOREIGN KEY (raion_code) REFERENCES Location (Code)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    CONSTRAINT PK_user_roles PRIMARY KEY (user_id, role_id),
+    CONSTRAINT FK_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT FK_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
+
+CREATE TABLE ibans (
+    id BIGINT IDENTITY(1,1) NOT NULL,
+    iban_code VARCHAR(24) NOT NULL,
+    year INT NOT NULL,
+    eco_code NVARCHAR(50) NOT NULL,
+    locality_code NVARCHAR(50) NOT NULL,
+    created_by BIGINT,
+    created_date DATETIME2,
+    CONSTRAINT PK_ibans PRIMARY KEY (id),
+    CONSTRAINT FK_ibans_eco_code FOREIGN KEY (eco_code) REFERENCES eco_codes (code),
+    CONSTRAINT FK_ibans_locality FOREIGN KEY (locality_code) REFERENCES Location (Code),
+    CONSTRAINT FK_ibans_created_by FOREIGN KEY (created_by) REFERENCES users (id)
+);
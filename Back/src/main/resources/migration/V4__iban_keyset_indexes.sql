@@ -0,0 +1,2 @@
+-- Supporting indexes for keyset pagination (WHERE ... AND id > ? ORDER BY id)
+CREATE INDEX IX_ibans_year_id ON ibans (year, id);
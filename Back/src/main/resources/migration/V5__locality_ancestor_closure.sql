@@ -0,0 +1,66 @@
+-- Ancestor closure for the multi-level locality nomenclature (raion -> sector -> locality -> ...).
+-- Every locality has a depth 0 row for itself plus one row per ancestor, so a raion view is a
+-- single seek on ancestor_code instead of an OR over code/parent_code.
+-- Plain statements only, so the script runs unchanged on SQL Server and on H2 in the tests;
+-- on SQL Server the TR_Location_ancestors trigger (migration-sqlserver) keeps the table current.
+CREATE TABLE locality_ancestors (
+    ancestor_code NVARCHAR(50) NOT NULL,
+    locality_code NVARCHAR(50) NOT NULL,
+    depth INT NOT NULL,
+    CONSTRAINT PK_locality_ancestors PRIMARY KEY (ancestor_code, locality_code)
+);
+
+CREATE INDEX IX_locality_ancestors_locality ON locality_ancestors (locality_code, depth);
+
+INSERT INTO locality_ancestors (ancestor_code, locality_code, depth)
+SELECT Code, Code, 0
+FROM Location;
+
+-- One level per statement; the nomenclature is at most four levels deep, eight are covered.
+INSERT INTO locality_ancestors (ancestor_code, locality_code, depth)
+SELECT l.parent_code, a.locality_code, a.depth + 1
+FROM locality_ancestors a
+JOIN Location l ON l.Code = a.ancestor_code
+WHERE a.depth = 0 AND l.parent_code IS NOT NULL;
+
+INSERT INTO locality_ancestors (ancestor_code, locality_code, depth)
+SELECT l.parent_code, a.locality_code, a.depth + 1
+FROM locality_ancestors a
+JOIN Location l ON l.Code = a.ancestor_code
+WHERE a.depth = 1 AND l.parent_code IS NOT NULL;
+
+INSERT INTO locality_ancestors (ancestor_code, locality_code, depth)
+SELECT l.parent_code, a.locality_code, a.depth + 1
+FROM locality_ancestors a
+JOIN Location l ON l.Code = a.ancestor_code
+WHERE a.depth = 2 AND l.parent_code IS NOT NULL;
+
+INSERT INTO locality_ancestors (ancestor_code, locality_code, depth)
+SELECT l.parent_code, a.locality_code, a.depth + 1
+FROM locality_ancestors a
+JOIN Location l ON l.Code = a.ancestor_code
+WHERE a.depth = 3 AND l.parent_code IS NOT NULL;
+
+INSERT INTO locality_ancestors (ancestor_code, locality_code, depth)
+SELECT l.parent_code, a.locality_code, a.depth + 1
+FROM locality_ancestors a
+JOIN Location l ON l.Code = a.ancestor_code
+WHERE a.depth = 4 AND l.parent_code IS NOT NULL;
+
+INSERT INTO locality_ancestors (ancestor_code, locality_code, depth)
+SELECT l.parent_code, a.locality_code, a.depth + 1
+FROM locality_ancestors a
+JOIN Location l ON l.Code = a.ancestor_code
+WHERE a.depth = 5 AND l.parent_code IS NOT NULL;
+
+INSERT INTO locality_ancestors (ancestor_code, locality_code, depth)
+SELECT l.parent_code, a.locality_code, a.depth + 1
+FROM locality_ancestors a
+JOIN Location l ON l.Code = a.ancestor_code
+WHERE a.depth = 6 AND l.parent_code IS NOT NULL;
+
+INSERT INTO locality_ancestors (ancestor_code, locality_code, depth)
+SELECT l.parent_code, a.locality_code, a.depth + 1
+FROM locality_ancestors a
+JOIN Location l ON l.Code = a.ancestor_code
+WHERE a.depth = 7 AND l.parent_code IS NOT NULL;
@@ -0,0 +1,25 @@
+-- One IBAN per (year, eco code, locality); enforced by the database so concurrent creates cannot both succeed
+
+-- Databases created before the index may already hold duplicates: keep the lowest id per key and move the
+-- others to ibans_duplicates_v6 so they can be reviewed (and the table dropped) once the migration has run
+CREATE TABLE ibans_duplicates_v6 (
+    id BIGINT NOT NULL,
+    iban_code VARCHAR(24) NOT NULL,
+    year INT NOT NULL,
+    eco_code NVARCHAR(50) NOT NULL,
+    locality_code NVARCHAR(50) NOT NULL,
+    created_by BIGINT,
+    created_date DATETIME2,
+    CONSTRAINT PK_ibans_duplicates_v6 PRIMARY KEY (id)
+);
+
+INSERT INTO ibans_duplicates_v6 (id, iban_code, year, eco_code, locality_code, created_by, created_date)
+SELECT d.id, d.iban_code, d.year, d.eco_code, d.locality_code, d.created_by, d.created_date
+FROM ibans d
+WHERE EXISTS (SELECT 1 FROM ibans k
+              WHERE k.year = d.year AND k.eco_code = d.eco_code AND k.locality_code = d.locality_code AND k.id < d.id);
+
+DELETE FROM ibans
+WHERE id IN (SELECT id FROM ibans_duplicates_v6);
+
+CREATE UNIQUE INDEX UX_ibans_year_eco_locality ON ibans (year, eco_code, locality_code);
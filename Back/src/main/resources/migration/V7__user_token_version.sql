@@ -0,0 +1,2 @@
+-- Access tokens carry the user's token version; bumping it revokes tokens issued before a role/raion change
+ALTER TABLE users ADD token_version INT DEFAULT 0 NOT NULL;
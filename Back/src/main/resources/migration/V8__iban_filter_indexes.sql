@@ -0,0 +1,6 @@
+-- Composite indexes for the dynamic IBAN filter (every query is WHERE ... AND id > ? ORDER BY id).
+-- year (+ eco [+ locality]) is covered by UX_ibans_year_eco_locality and IX_ibans_year_id;
+-- these cover filters that lead with eco code or with locality (including raion subtrees,
+-- which resolve to a locality list through locality_ancestors).
+CREATE INDEX IX_ibans_eco_year_id ON ibans (eco_code, year, id);
+CREATE INDEX IX_ibans_locality_year_id ON ibans (locality_code, year, id);
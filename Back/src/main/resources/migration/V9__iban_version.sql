@@ -0,0 +1,2 @@
+-- Optimistic locking for IBAN edits; PUT /api/ibans/{id} compares it against If-Match
+ALTER TABLE ibans ADD version BIGINT DEFAULT 0 NOT NULL;
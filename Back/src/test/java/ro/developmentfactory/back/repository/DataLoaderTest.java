@@ -0,0 +1,130 @@
+package ro.developmentfactory.back.repository;
+
+import iban.repository.LocalityRepository;
+import iban.repository.RoleRepository;
+import iban.repository.UserRepository;
+import iban.repository.config.DataLoader;
+import iban.repository.entity.Locality;
+import iban.repository.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DataLoaderTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private LocalityRepository localityRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @InjectMocks
+    private DataLoader dataLoader;
+
+    @BeforeEach
+    void setUp() {
+        when(roleRepository.count()).thenReturn(3L);
+        when(userRepository.findByUsername("admin"))
+                .thenReturn(Optional.of(user("admin", "Administrator Principal", "admin@example.com")));
+        when(userRepository.findByUsername("operator"))
+                .thenReturn(Optional.of(user("operator", "Operator Standard", "operator@example.com")));
+        when(userRepository.findByUsername("raion"))
+                .thenReturn(Optional.of(raionUser(locality("0100"))));
+    }
+
+    @Test
+    @DisplayName("Given default users whose hashes match, when seeding, then nothing is re-encoded or saved")
+    void run_WithUnchangedUsers_SkipsEncodingAndSaving() {
+        // Given
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(anyString())).thenReturn(false);
+
+        // When
+        dataLoader.run();
+
+        // Then
+        verify(userRepository, times(3)).findByUsername(anyString());
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Given a default user whose password no longer matches, when seeding, then only that user is re-encoded")
+    void run_WithChangedPassword_ReencodesOnlyThatUser() {
+        // Given
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.matches("admin123", "hash-admin")).thenReturn(false);
+        when(passwordEncoder.upgradeEncoding(anyString())).thenReturn(false);
+        when(passwordEncoder.encode("admin123")).thenReturn("new-hash");
+
+        // When
+        dataLoader.run();
+
+        // Then
+        verify(passwordEncoder, times(1)).encode(anyString());
+        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository).save(argThat(user ->
+                "admin".equals(user.getUsername()) && "new-hash".equals(user.getPassword())));
+    }
+
+    @Test
+    @DisplayName("Given the raion operator assigned to another raion, when seeding, then the default raion is restored and older tokens revoked")
+    void run_WithChangedRaion_RestoresDefaultRaion() {
+        // Given
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(anyString())).thenReturn(false);
+        when(userRepository.findByUsername("raion")).thenReturn(Optional.of(raionUser(locality("0300"))));
+        Locality chisinau = locality("0100");
+        when(localityRepository.findById("0100")).thenReturn(Optional.of(chisinau));
+
+        // When
+        dataLoader.run();
+
+        // Then
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository).save(argThat(user ->
+                "raion".equals(user.getUsername()) && user.getRaion() == chisinau && user.getTokenVersion() == 1));
+    }
+
+    private static User raionUser(Locality raion) {
+        User user = user("raion", "Operator Raion", "raion@example.com");
+        user.setRaion(raion);
+        return user;
+    }
+
+    private static Locality locality(String code) {
+        Locality locality = new Locality();
+        locality.setCode(code);
+        locality.setName("Raion " + code);
+        locality.setIsRaion(true);
+        return locality;
+    }
+
+    private static User user(String username, String fullName, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("hash-" + username);
+        user.setFullName(fullName);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,131 @@
+package ro.developmentfactory.back.repository;
+
+import iban.repository.config.FlywayConfig;
+import iban.repository.entity.Iban;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the real migration scripts (not hbm2ddl) on a clean H2 schema, with the locations
+ * resolved the same way FlywayConfig resolves them at startup.
+ */
+class FlywayMigrationTest {
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = H2JpaSupport.dataSource("flyway");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("Given a clean schema, when migrating, then all nine versions apply and Hibernate validates the entities")
+    void migrate_OnCleanSchema_AppliesAllVersionsAndValidates() {
+        // When
+        flyway(null).migrate();
+
+        // Then
+        List<String> applied = Arrays.stream(flyway(null).info().applied())
+                .map(info -> info.getVersion().getVersion())
+                .toList();
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7", "8", "9"), applied);
+        assertTrue(Arrays.stream(flyway(null).info().applied()).allMatch(info -> info.getState().isApplied()));
+
+        LocalContainerEntityManagerFactoryBean emf = H2JpaSupport.entityManagerFactory(dataSource, false, "validate");
+        assertNotNull(emf.getObject());
+        emf.destroy();
+    }
+
+    @Test
+    @DisplayName("Given localities present before V5, when migrating, then the closure holds every locality and its ancestors")
+    void migrate_WithExistingLocalities_PopulatesAncestorClosure() {
+        // Given
+        flyway("4").migrate();
+        jdbcTemplate.update("INSERT INTO Location (Code, Title, parent_code, is_raion) VALUES ('0100', 'Chişinău', NULL, 1)");
+        jdbcTemplate.update("INSERT INTO Location (Code, Title, parent_code, is_raion) VALUES ('0110', 'Sectorul Botanica', '0100', 0)");
+        jdbcTemplate.update("INSERT INTO Location (Code, Title, parent_code, is_raion) VALUES ('0111', 'Botanica', '0110', 0)");
+
+        // When
+        flyway(null).migrate();
+
+        // Then
+        List<String> ancestors = jdbcTemplate.queryForList(
+                "SELECT ancestor_code FROM locality_ancestors WHERE locality_code = '0111' ORDER BY depth", String.class);
+        assertEquals(List.of("0111", "0110", "0100"), ancestors);
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM locality_ancestors", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Given the migrated schema, when inserting a second IBAN for the same key, then V6's unique index rejects it by name")
+    void migrate_NaturalKeyIndex_RejectsDuplicateIbans() {
+        // Given
+        flyway(null).migrate();
+        jdbcTemplate.update("INSERT INTO Location (Code, Title, is_raion) VALUES ('0100', 'Chişinău', 1)");
+        jdbcTemplate.update("INSERT INTO eco_codes (code, label) VALUES ('111110', 'Impozit pe venitul retinut din salariu')");
+        String insert = "INSERT INTO ibans (iban_code, year, eco_code, locality_code) VALUES (?, 2025, '111110', '0100')";
+        jdbcTemplate.update(insert, "MD24TRPAAA111110010000");
+
+        // When
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update(insert, "MD24TRPAAA111110010001"));
+
+        // Then
+        // IbanServiceImpl maps the violation to 409 by the index name
+        assertTrue(e.getMostSpecificCause().getMessage().toUpperCase().contains(Iban.NATURAL_KEY_CONSTRAINT.toUpperCase()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ibans", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Given duplicate IBANs present before V6, when migrating, then the lowest id is kept and the rest are set aside")
+    void migrate_WithExistingDuplicates_KeepsLowestIdPerKey() {
+        // Given
+        flyway("5").migrate();
+        jdbcTemplate.update("INSERT INTO Location (Code, Title, is_raion) VALUES ('0100', 'Chişinău', 1)");
+        jdbcTemplate.update("INSERT INTO eco_codes (code, label) VALUES ('111110', 'Impozit pe venitul retinut din salariu')");
+        String insert = "INSERT INTO ibans (iban_code, year, eco_code, locality_code) VALUES (?, ?, '111110', '0100')";
+        jdbcTemplate.update(insert, "MD24TRPAAA111110010000", 2025);
+        jdbcTemplate.update(insert, "MD24TRPAAA111110010001", 2025);
+        jdbcTemplate.update(insert, "MD24TRPAAA111110010002", 2025);
+        jdbcTemplate.update(insert, "MD24TRPAAA111110010003", 2026);
+
+        // When
+        flyway(null).migrate();
+
+        // Then
+        List<String> kept = jdbcTemplate.queryForList("SELECT iban_code FROM ibans ORDER BY id", String.class);
+        assertEquals(List.of("MD24TRPAAA111110010000", "MD24TRPAAA111110010003"), kept);
+        List<String> setAside = jdbcTemplate.queryForList(
+                "SELECT iban_code FROM ibans_duplicates_v6 ORDER BY id", String.class);
+        assertEquals(List.of("MD24TRPAAA111110010001", "MD24TRPAAA111110010002"), setAside);
+    }
+
+    private Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .locations(FlywayConfig.resolveLocations(dataSource, "classpath:migration", "classpath:migration-{vendor}"));
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+}
@@ -0,0 +1,81 @@
+package ro.developmentfactory.back.repository;
+
+import iban.repository.IbanCountRepositoryImpl;
+import iban.repository.IbanFilterRepositoryImpl;
+import iban.repository.IbanNaturalIdRepositoryImpl;
+import iban.repository.IbanRepository;
+import iban.repository.IbanUpdateRepositoryImpl;
+import iban.repository.config.HibernateConfig;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Builds a standalone JPA setup on an in-memory H2 database in SQL Server mode,
+ * without starting the application context (JpaConfig/DatabaseConfig target SQL Server).
+ */
+final class H2JpaSupport {
+
+    private H2JpaSupport() {
+    }
+
+    static DataSource dataSource(String databaseName) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + databaseName + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE",
+                "sa",
+                "");
+        dataSource.setDriverClassName("org.h2.Driver");
+        return dataSource;
+    }
+
+    static LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+        return entityManagerFactory(dataSource, false);
+    }
+
+    static LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, boolean secondLevelCache) {
+        return entityManagerFactory(dataSource, secondLevelCache, "create-drop");
+    }
+
+    static LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, boolean secondLevelCache,
+                                                                       String ddlAuto) {
+        return entityManagerFactory(dataSource, secondLevelCache, ddlAuto, properties -> { });
+    }
+
+    static LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, boolean secondLevelCache,
+                                                                       String ddlAuto,
+                                                                       Consumer<Map<String, Object>> settings) {
+        LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+        em.setDataSource(dataSource);
+        em.setPackagesToScan("iban.repository.entity");
+        em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.hbm2ddl.auto", ddlAuto);
+        properties.put("hibernate.generate_statistics", true);
+        if (secondLevelCache) {
+            HibernateConfig.applySecondLevelCache(properties);
+        }
+        settings.accept(properties);
+        em.setJpaPropertyMap(properties);
+
+        em.afterPropertiesSet();
+        return em;
+    }
+
+    static IbanRepository ibanRepository(EntityManager entityManager) {
+        return new JpaRepositoryFactory(entityManager).getRepository(IbanRepository.class,
+                RepositoryFragments.just(
+                        new IbanNaturalIdRepositoryImpl(entityManager),
+                        new IbanFilterRepositoryImpl(entityManager),
+                        new IbanCountRepositoryImpl(entityManager),
+                        new IbanUpdateRepositoryImpl(entityManager)));
+    }
+}
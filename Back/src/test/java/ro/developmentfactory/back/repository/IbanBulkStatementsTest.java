@@ -0,0 +1,136 @@
+package ro.developmentfactory.back.repository;
+
+import iban.controller.dto.request.IbanFilterRequest;
+import iban.repository.IbanRepository;
+import iban.repository.IbanRowKey;
+import iban.repository.IbanSpecifications;
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IbanBulkStatementsTest {
+
+    private LocalContainerEntityManagerFactoryBean emf;
+    private EntityManager entityManager;
+    private IbanRepository ibanRepository;
+    private Long movedAway;
+    private Long blocked;
+
+    @BeforeEach
+    void setUp() {
+        emf = H2JpaSupport.entityManagerFactory(H2JpaSupport.dataSource("bulk"));
+        entityManager = emf.getObject().createEntityManager();
+        ibanRepository = H2JpaSupport.ibanRepository(entityManager);
+
+        entityManager.getTransaction().begin();
+        EcoCode salary = new EcoCode("111110", "Impozit pe venitul retinut din salariu");
+        EcoCode vat = new EcoCode("111120", "Impozit pe venitul persoanelor fizice");
+        entityManager.persist(salary);
+        entityManager.persist(vat);
+        Locality merged = locality("0101", "Codru");
+        Locality survivor = locality("0102", "Vadul lui Vodă");
+        entityManager.persist(merged);
+        entityManager.persist(survivor);
+
+        blocked = persist("MD49TRPAAA14511001030000", salary, merged);
+        movedAway = persist("MD22TRPAAA14511001030001", vat, merged);
+        persist("MD92TRPAAA14511001030002", salary, survivor);
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        emf.destroy();
+    }
+
+    @Test
+    @DisplayName("Given a locality merge, when previewing and reassigning, then only rows with a free target key move")
+    void reassign_LocalityMerge_SkipsTakenKeys() {
+        // Given
+        Specification<Iban> matching = IbanSpecifications.matching(filter(null, "0101"));
+        Specification<Iban> taken = IbanSpecifications.targetKeyTaken(null, "0102");
+
+        // When
+        long matched = ibanRepository.countMatching(matching);
+        long conflicts = ibanRepository.countMatching(matching.and(taken));
+        List<IbanRowKey> movable = ibanRepository.findKeys(matching.and(Specification.not(taken)), 0L, 100);
+        entityManager.getTransaction().begin();
+        int moved = ibanRepository.reassign(List.of(blocked, movedAway), null, null, "0101", "0102");
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+
+        // Then
+        assertEquals(2L, matched);
+        assertEquals(1L, conflicts);
+        assertEquals(List.of(new IbanRowKey(movedAway, 2025)), movable);
+        assertEquals(1, moved);
+        assertEquals("0102", entityManager.find(Iban.class, movedAway).getLocality().getCode());
+        assertEquals(1L, entityManager.find(Iban.class, movedAway).getVersion());
+        assertEquals("0101", entityManager.find(Iban.class, blocked).getLocality().getCode());
+    }
+
+    @Test
+    @DisplayName("Given a filter, when deleting in keyset chunks, then every matching row is removed chunk by chunk")
+    void deleteByIds_InChunks_RemovesAllMatchingRows() {
+        // Given
+        Specification<Iban> matching = IbanSpecifications.matching(filter(2025, null));
+
+        // When
+        int chunks = 0;
+        int deleted = 0;
+        long afterId = 0L;
+        List<IbanRowKey> keys;
+        while (!(keys = ibanRepository.findKeys(matching, afterId, 2)).isEmpty()) {
+            entityManager.getTransaction().begin();
+            deleted += ibanRepository.deleteByIds(keys.stream().map(IbanRowKey::id).toList());
+            entityManager.getTransaction().commit();
+            afterId = keys.get(keys.size() - 1).id();
+            chunks++;
+        }
+
+        // Then
+        assertEquals(3, deleted);
+        assertEquals(2, chunks);
+        assertEquals(0L, ibanRepository.countMatching(matching));
+    }
+
+    private Long persist(String ibanCode, EcoCode ecoCode, Locality locality) {
+        Iban iban = new Iban();
+        iban.setIbanCode(ibanCode);
+        iban.setYear(Year.of(2025));
+        iban.setEcoCode(ecoCode);
+        iban.setLocality(locality);
+        iban.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(iban);
+        return iban.getId();
+    }
+
+    private static IbanFilterRequest filter(Integer year, String localityCode) {
+        IbanFilterRequest filter = new IbanFilterRequest();
+        filter.setYear(year);
+        filter.setLocalityCode(localityCode);
+        return filter;
+    }
+
+    private static Locality locality(String code, String name) {
+        Locality locality = new Locality();
+        locality.setCode(code);
+        locality.setName(name);
+        return locality;
+    }
+}
@@ -0,0 +1,154 @@
+package ro.developmentfactory.back.repository;
+
+import iban.controller.dto.response.IbanCountResponse;
+import iban.repository.IbanCountDimension;
+import iban.repository.IbanRepository;
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import iban.repository.entity.LocalityAncestor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the GROUP BY JPQL built by IbanCountRepositoryImpl against H2.
+ */
+class IbanCountQueryTest {
+
+    private LocalContainerEntityManagerFactoryBean emf;
+    private EntityManager entityManager;
+    private IbanRepository ibanRepository;
+
+    @BeforeEach
+    void setUp() {
+        emf = H2JpaSupport.entityManagerFactory(H2JpaSupport.dataSource("count"));
+        entityManager = emf.getObject().createEntityManager();
+        ibanRepository = H2JpaSupport.ibanRepository(entityManager);
+
+        seed();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        emf.destroy();
+    }
+
+    @Test
+    @DisplayName("Given IBANs with and without a raion ancestor, when counting by raion, then every IBAN is counted once")
+    void countBy_Raion_KeepsIbansWithoutRaionUnderNull() {
+        // When
+        List<IbanCountResponse> rows = ibanRepository.countBy(EnumSet.of(IbanCountDimension.RAION), null, null);
+
+        // Then
+        Map<String, Long> byRaion = new HashMap<>();
+        rows.forEach(row -> byRaion.put(row.getRaionCode(), row.getCount()));
+        assertEquals(Map.of("R1", 3L, "M2", 1L), withoutNull(byRaion));
+        assertEquals(1L, byRaion.get(null));
+        assertEquals(ibanRepository.countBy(Set.of(), null, null).get(0).getCount(),
+                rows.stream().mapToLong(IbanCountResponse::getCount).sum());
+    }
+
+    @Test
+    @DisplayName("Given a year range, when counting by raion, year and eco code, then the groups follow the nearest raion")
+    void countBy_AllDimensionsInYearRange_GroupsByNearestRaion() {
+        // When
+        List<IbanCountResponse> rows = ibanRepository.countBy(
+                EnumSet.allOf(IbanCountDimension.class), 2025, 2025);
+
+        // Then
+        assertEquals(3, rows.size());
+        Map<String, IbanCountResponse> byRaion = new HashMap<>();
+        rows.forEach(row -> byRaion.put(row.getRaionCode(), row));
+        assertEquals(2L, byRaion.get("R1").getCount());
+        assertEquals("Raion 1", byRaion.get("R1").getRaionName());
+        assertEquals("111110", byRaion.get("R1").getEcoCode());
+        assertEquals(1L, byRaion.get("M2").getCount());
+        assertEquals(1L, byRaion.get(null).getCount());
+        assertEquals("111120", byRaion.get(null).getEcoCode());
+        assertTrue(rows.stream().allMatch(row -> row.getYear() == 2025));
+    }
+
+    private static Map<String, Long> withoutNull(Map<String, Long> counts) {
+        Map<String, Long> copy = new HashMap<>(counts);
+        copy.remove(null);
+        return copy;
+    }
+
+    private void seed() {
+        entityManager.getTransaction().begin();
+
+        EcoCode salary = new EcoCode("111110", "Impozit pe venitul retinut din salariu");
+        EcoCode income = new EcoCode("111120", "Impozit pe venit din activitatea de intreprinzator");
+        entityManager.persist(salary);
+        entityManager.persist(income);
+
+        Locality raion1 = locality("R1", "Raion 1", null, true);
+        Locality village = locality("L1", "Localitate 1", raion1, false);
+        ancestors("R1");
+        ancestors("L1", "R1");
+
+        // A municipality flagged as raion inside another raion: its sectors belong to the municipality
+        Locality raion2 = locality("R2", "Raion 2", null, true);
+        Locality municipality = locality("M2", "Municipiu 2", raion2, true);
+        Locality sector = locality("S2", "Sector 2", municipality, false);
+        ancestors("R2");
+        ancestors("M2", "R2");
+        ancestors("S2", "M2", "R2");
+
+        // A locality outside any raion
+        Locality standalone = locality("X1", "Localitate fara raion", null, false);
+        ancestors("X1");
+
+        iban("MD24TRPAAA111110R1000001", 2025, salary, village);
+        iban("MD24TRPAAA111110R1000002", 2025, salary, raion1);
+        iban("MD24TRPAAA111120R1000003", 2026, income, village);
+        iban("MD24TRPAAA111110S2000001", 2025, salary, sector);
+        iban("MD24TRPAAA111120X1000001", 2025, income, standalone);
+
+        entityManager.getTransaction().commit();
+    }
+
+    private Locality locality(String code, String name, Locality parent, boolean isRaion) {
+        Locality locality = new Locality();
+        locality.setCode(code);
+        locality.setName(name);
+        locality.setParent(parent);
+        locality.setIsRaion(isRaion);
+        entityManager.persist(locality);
+        return locality;
+    }
+
+    // The closure rows of a locality: itself at depth 0, then its ancestors from the nearest up
+    private void ancestors(String code, String... ancestorCodes) {
+        entityManager.persist(new LocalityAncestor(code, code, 0));
+        for (int depth = 1; depth <= ancestorCodes.length; depth++) {
+            entityManager.persist(new LocalityAncestor(ancestorCodes[depth - 1], code, depth));
+        }
+    }
+
+    private void iban(String code, int year, EcoCode ecoCode, Locality locality) {
+        Iban iban = new Iban();
+        iban.setIbanCode(code);
+        iban.setYear(Year.of(year));
+        iban.setEcoCode(ecoCode);
+        iban.setLocality(locality);
+        iban.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(iban);
+    }
+}
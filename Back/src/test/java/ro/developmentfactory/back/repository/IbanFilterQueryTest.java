@@ -0,0 +1,189 @@
+package ro.developmentfactory.back.repository;
+
+import iban.controller.dto.request.IbanFilterRequest;
+import iban.controller.dto.response.IbanResponse;
+import iban.repository.IbanRepository;
+import iban.repository.IbanSpecifications;
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import iban.repository.entity.LocalityAncestor;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IbanFilterQueryTest {
+
+    private static final String[] RAIONS = {"R1", "R2"};
+    private static final String[] ECO_CODES = {"111110", "111120"};
+    private static final int[] YEARS = {2024, 2025, 2026};
+
+    private LocalContainerEntityManagerFactoryBean emf;
+    private EntityManager entityManager;
+    private IbanRepository ibanRepository;
+    private Statistics statistics;
+    private final List<IbanResponse> seeded = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        emf = H2JpaSupport.entityManagerFactory(H2JpaSupport.dataSource("filter"));
+        entityManager = emf.getObject().createEntityManager();
+        ibanRepository = H2JpaSupport.ibanRepository(entityManager);
+        statistics = emf.getObject().unwrap(SessionFactory.class).getStatistics();
+
+        seed();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        emf.destroy();
+    }
+
+    @Test
+    @DisplayName("Given every combination of filter fields, when filtering, then one bounded statement returns exactly the matching rows")
+    void findResponses_EveryCombination_IssuesOneBoundedStatement() {
+        // 6 independent dimensions -> 64 combinations, including the empty filter
+        for (int mask = 0; mask < 1 << 6; mask++) {
+            IbanFilterRequest filter = new IbanFilterRequest();
+            Predicate<IbanResponse> expected = row -> true;
+
+            if ((mask & 1) != 0) {
+                filter.setYear(2025);
+                expected = expected.and(row -> row.getYear() == 2025);
+            }
+            if ((mask & 2) != 0) {
+                filter.setYearFrom(2025);
+                filter.setYearTo(2026);
+                expected = expected.and(row -> row.getYear() >= 2025 && row.getYear() <= 2026);
+            }
+            if ((mask & 4) != 0) {
+                filter.setEcoCode("111110");
+                expected = expected.and(row -> row.getEcoCode().equals("111110"));
+            }
+            if ((mask & 8) != 0) {
+                filter.setEcoCodes(List.of("111110", "111120"));
+                expected = expected.and(row -> List.of("111110", "111120").contains(row.getEcoCode()));
+            }
+            if ((mask & 16) != 0) {
+                filter.setLocalityCodes(List.of("R1-L0", "R2-L1"));
+                expected = expected.and(row -> List.of("R1-L0", "R2-L1").contains(row.getLocalityCode()));
+            }
+            if ((mask & 32) != 0) {
+                filter.setRaionCode("R1");
+                expected = expected.and(row -> "R1".equals(row.getRaionCode()));
+            }
+
+            List<IbanResponse> all = seeded.stream().filter(expected).toList();
+            int limit = Math.max(1, all.size() - 1);
+
+            statistics.clear();
+            List<IbanResponse> rows = ibanRepository.findResponses(IbanSpecifications.matching(filter), 0L, limit);
+
+            assertEquals(1, statistics.getPrepareStatementCount(), "statements for mask " + mask);
+            assertEquals(Math.min(limit, all.size()), rows.size(), "rows for mask " + mask);
+            assertEquals(all.subList(0, rows.size()).stream().map(IbanResponse::getId).toList(),
+                    rows.stream().map(IbanResponse::getId).toList(), "ids for mask " + mask);
+        }
+    }
+
+    @Test
+    @DisplayName("Given a single eco code outside the eco code list, when filtering, then nothing matches")
+    void findResponses_SingleValueOutsideList_MatchesNothing() {
+        // Given
+        IbanFilterRequest filter = new IbanFilterRequest();
+        filter.setEcoCode("111110");
+        filter.setEcoCodes(List.of("111120"));
+
+        // When
+        List<IbanResponse> rows = ibanRepository.findResponses(IbanSpecifications.matching(filter), 0L, 100);
+
+        // Then
+        assertTrue(rows.isEmpty());
+        assertFalse(IbanSpecifications.isEmpty(filter));
+    }
+
+    @Test
+    @DisplayName("Given a keyset position, when filtering, then only later ids are returned")
+    void findResponses_AfterId_ContinuesFromCursor() {
+        // Given
+        IbanFilterRequest filter = new IbanFilterRequest();
+        filter.setRaionCodes(List.of("R2"));
+        List<IbanResponse> firstPage = ibanRepository.findResponses(IbanSpecifications.matching(filter), 0L, 3);
+
+        // When
+        List<IbanResponse> secondPage = ibanRepository.findResponses(
+                IbanSpecifications.matching(filter), firstPage.get(2).getId(), 100);
+
+        // Then
+        assertEquals(3, firstPage.size());
+        assertTrue(secondPage.stream().allMatch(row -> row.getId() > firstPage.get(2).getId()));
+        assertEquals(seeded.stream().filter(row -> "R2".equals(row.getRaionCode())).count(),
+                firstPage.size() + secondPage.size());
+    }
+
+    private void seed() {
+        entityManager.getTransaction().begin();
+
+        List<EcoCode> ecoCodes = new ArrayList<>();
+        for (String code : ECO_CODES) {
+            EcoCode ecoCode = new EcoCode(code, "Eco " + code);
+            entityManager.persist(ecoCode);
+            ecoCodes.add(ecoCode);
+        }
+
+        int serial = 0;
+        for (String raionCode : RAIONS) {
+            Locality raion = new Locality();
+            raion.setCode(raionCode);
+            raion.setName("Raion " + raionCode);
+            raion.setIsRaion(true);
+            entityManager.persist(raion);
+            entityManager.persist(new LocalityAncestor(raionCode, raionCode, 0));
+
+            for (int l = 0; l < 2; l++) {
+                Locality locality = new Locality();
+                locality.setCode(raionCode + "-L" + l);
+                locality.setName("Localitate " + locality.getCode());
+                locality.setParent(raion);
+                locality.setIsRaion(false);
+                entityManager.persist(locality);
+                entityManager.persist(new LocalityAncestor(locality.getCode(), locality.getCode(), 0));
+                entityManager.persist(new LocalityAncestor(raionCode, locality.getCode(), 1));
+
+                for (int year : YEARS) {
+                    for (EcoCode ecoCode : ecoCodes) {
+                        Iban iban = new Iban();
+                        iban.setIbanCode(String.format("MD00TRPAAA1451%010d", serial++));
+                        iban.setYear(Year.of(year));
+                        iban.setEcoCode(ecoCode);
+                        iban.setLocality(locality);
+                        iban.setCreatedDate(LocalDateTime.now());
+                        entityManager.persist(iban);
+                        entityManager.flush();
+
+                        seeded.add(new IbanResponse(iban.getId(), iban.getIbanCode(), year, ecoCode.getCode(),
+                                ecoCode.getLabel(), locality.getCode(), locality.getName(), raionCode, raion.getName(),
+                                iban.getVersion()));
+                    }
+                }
+            }
+        }
+
+        entityManager.getTransaction().commit();
+    }
+}
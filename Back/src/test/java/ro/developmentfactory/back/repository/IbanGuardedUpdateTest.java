@@ -0,0 +1,104 @@
+package ro.developmentfactory.back.repository;
+
+import iban.repository.IbanRepository;
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import iban.repository.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IbanGuardedUpdateTest {
+
+    private LocalContainerEntityManagerFactoryBean emf;
+    private EntityManager entityManager;
+    private IbanRepository ibanRepository;
+    private Long ibanId;
+    private Long editorId;
+
+    @BeforeEach
+    void setUp() {
+        emf = H2JpaSupport.entityManagerFactory(H2JpaSupport.dataSource("guardedupdate"));
+        entityManager = emf.getObject().createEntityManager();
+        ibanRepository = H2JpaSupport.ibanRepository(entityManager);
+
+        entityManager.getTransaction().begin();
+        EcoCode ecoCode = new EcoCode("111110", "Impozit pe venitul retinut din salariu");
+        entityManager.persist(ecoCode);
+        Locality locality = new Locality();
+        locality.setCode("0100");
+        locality.setName("Chişinău");
+        locality.setIsRaion(true);
+        entityManager.persist(locality);
+        User editor = User.builder()
+                .username("operator")
+                .password("hash")
+                .fullName("Operator")
+                .email("operator@example.com")
+                .build();
+        entityManager.persist(editor);
+        editorId = editor.getId();
+
+        Iban iban = new Iban();
+        iban.setIbanCode("MD49TRPAAA14511001030000");
+        iban.setYear(Year.of(2025));
+        iban.setEcoCode(ecoCode);
+        iban.setLocality(locality);
+        iban.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(iban);
+        ibanId = iban.getId();
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        emf.destroy();
+    }
+
+    @Test
+    @DisplayName("Given the current version, when updating, then the row changes and its version is incremented")
+    void updateIfUnchanged_WithCurrentVersion_UpdatesAndBumpsVersion() {
+        // When
+        int updated = update(2025, 0L);
+
+        // Then
+        assertEquals(1, updated);
+        Iban iban = entityManager.find(Iban.class, ibanId);
+        assertEquals("MD22TRPAAA14511001030001", iban.getIbanCode());
+        assertEquals(1L, iban.getVersion());
+        assertEquals(editorId, iban.getCreatedBy().getId());
+    }
+
+    @Test
+    @DisplayName("Given a stale version or another year, when updating, then no row is touched")
+    void updateIfUnchanged_WithStaleExpectations_UpdatesNothing() {
+        // When
+        int staleVersion = update(2025, 5L);
+        int otherYear = update(2024, 0L);
+
+        // Then
+        assertEquals(0, staleVersion);
+        assertEquals(0, otherYear);
+        assertEquals(0L, ibanRepository.findVersionById(ibanId).orElseThrow().getVersion());
+    }
+
+    private int update(Integer expectedYear, Long expectedVersion) {
+        entityManager.getTransaction().begin();
+        int updated = ibanRepository.updateIfUnchanged(ibanId, expectedYear, expectedVersion,
+                "MD22TRPAAA14511001030001", 2025, "111110", "0100", editorId);
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,112 @@
+package ro.developmentfactory.back.repository;
+
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IbanNaturalKeyConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private LocalContainerEntityManagerFactoryBean emf;
+
+    @BeforeEach
+    void setUp() {
+        emf = H2JpaSupport.entityManagerFactory(H2JpaSupport.dataSource("naturalkey"));
+
+        EntityManager entityManager = emf.getObject().createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.persist(new EcoCode("111110", "Impozit pe venitul retinut din salariu"));
+        Locality locality = new Locality();
+        locality.setCode("0100");
+        locality.setName("Chişinău");
+        locality.setIsRaion(true);
+        entityManager.persist(locality);
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @AfterEach
+    void tearDown() {
+        emf.destroy();
+    }
+
+    @Test
+    @DisplayName("Given many operators inserting the same key at once, when committing, then exactly one insert succeeds")
+    void concurrentInserts_OnSameNaturalKey_OnlyOneSucceeds() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            final int n = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                return insert(String.format("MD24TRPAAA145110010300%02d", n));
+            }));
+        }
+
+        // When
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, succeeded);
+        EntityManager entityManager = emf.getObject().createEntityManager();
+        Long rows = entityManager.createQuery("SELECT COUNT(i) FROM Iban i", Long.class).getSingleResult();
+        entityManager.close();
+        assertEquals(1L, rows);
+    }
+
+    private boolean insert(String ibanCode) {
+        EntityManager entityManager = emf.getObject().createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            Iban iban = new Iban();
+            iban.setIbanCode(ibanCode);
+            iban.setYear(Year.of(2025));
+            iban.setEcoCode(entityManager.getReference(EcoCode.class, "111110"));
+            iban.setLocality(entityManager.getReference(Locality.class, "0100"));
+            iban.setCreatedDate(LocalDateTime.now());
+            entityManager.persist(iban);
+            entityManager.flush();
+            entityManager.getTransaction().commit();
+            return true;
+        } catch (PersistenceException e) {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            assertTrue(String.valueOf(e.getMessage()).toUpperCase().contains(Iban.NATURAL_KEY_CONSTRAINT.toUpperCase()),
+                    "unexpected failure: " + e.getMessage());
+            return false;
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package ro.developmentfactory.back.repository;
+
+import iban.controller.dto.response.IbanResponse;
+import iban.repository.IbanRepository;
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import iban.repository.entity.LocalityAncestor;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IbanRepositoryProjectionTest {
+
+    private static final int RAIONS = 10;
+    private static final int LOCALITIES_PER_RAION = 100;
+
+    private LocalContainerEntityManagerFactoryBean emf;
+    private EntityManager entityManager;
+    private IbanRepository ibanRepository;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        emf = H2JpaSupport.entityManagerFactory(H2JpaSupport.dataSource("projection"));
+        entityManager = emf.getObject().createEntityManager();
+        ibanRepository = H2JpaSupport.ibanRepository(entityManager);
+        statistics = emf.getObject().unwrap(SessionFactory.class).getStatistics();
+
+        seed();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        emf.destroy();
+    }
+
+    @Test
+    @DisplayName("Given 1000 IBANs in child localities, when listing by year, then a single statement is issued")
+    void findResponsesByYear_With1000Rows_IssuesOneStatement() {
+        // When
+        List<IbanResponse> responses = ibanRepository.findResponsesByYear(Year.of(2025));
+
+        // Then
+        assertEquals(RAIONS * LOCALITIES_PER_RAION, responses.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("R02", responses.get(250).getRaionCode());
+        assertEquals("Raion 2", responses.get(250).getRaionName());
+    }
+
+    @Test
+    @DisplayName("Given 1000 IBANs, when listing by raion, then a single statement is issued")
+    void findResponsesByYearAndRaionCode_IssuesOneStatement() {
+        // When
+        List<IbanResponse> responses = ibanRepository.findResponsesByYearAndRaionCode(Year.of(2025), "R05");
+
+        // Then
+        assertEquals(LOCALITIES_PER_RAION, responses.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(responses.stream().allMatch(r -> "R05".equals(r.getRaionCode())));
+    }
+
+    @Test
+    @DisplayName("Given a locality two levels below the raion, when listing by raion, then it is included")
+    void findResponsesByYearAndRaionCode_IncludesDeepLocalities() {
+        // When
+        List<IbanResponse> responses = ibanRepository.findResponsesByYearAndRaionCode(Year.of(2026), "R02");
+
+        // Then
+        assertEquals(1, responses.size());
+        assertEquals("S02000", responses.get(0).getLocalityCode());
+        assertTrue(ibanRepository.findResponsesByYearAndRaionCode(Year.of(2026), "R03").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Given a locality two levels below the raion, when projecting, then the raion is the raion ancestor, not the parent")
+    void responses_ForDeepLocality_ReportRaionAncestor() {
+        // When
+        IbanResponse listed = ibanRepository.findResponsesByYear(Year.of(2026)).get(0);
+        IbanResponse filtered = ibanRepository.findResponses(
+                (root, query, cb) -> cb.equal(root.get(Iban.NATURAL_ID_YEAR), 2026), 0L, 10).get(0);
+
+        // Then
+        assertEquals("R02", listed.getRaionCode());
+        assertEquals("Raion 2", listed.getRaionName());
+        assertEquals("R02", filtered.getRaionCode());
+        assertEquals("Raion 2", filtered.getRaionName());
+    }
+
+    @Test
+    @DisplayName("Given a raion flagged inside another raion, when projecting, then one row reports the nearest raion")
+    void responses_WithNestedRaionFlags_ReportNearestRaionOnce() {
+        // Given
+        entityManager.getTransaction().begin();
+        Locality municipality = new Locality();
+        municipality.setCode("M03");
+        municipality.setName("Municipiu 3");
+        municipality.setParent(entityManager.find(Locality.class, "R03"));
+        municipality.setIsRaion(true);
+        entityManager.persist(municipality);
+        entityManager.persist(new LocalityAncestor("M03", "M03", 0));
+        entityManager.persist(new LocalityAncestor("R03", "M03", 1));
+
+        Locality sector = new Locality();
+        sector.setCode("N03000");
+        sector.setName("Sector 3/0");
+        sector.setParent(municipality);
+        sector.setIsRaion(false);
+        entityManager.persist(sector);
+        entityManager.persist(new LocalityAncestor("N03000", "N03000", 0));
+        entityManager.persist(new LocalityAncestor("M03", "N03000", 1));
+        entityManager.persist(new LocalityAncestor("R03", "N03000", 2));
+
+        Iban nestedIban = new Iban();
+        nestedIban.setIbanCode("MD24TRPAAA14519900000002");
+        nestedIban.setYear(Year.of(2028));
+        nestedIban.setEcoCode(entityManager.find(EcoCode.class, "111110"));
+        nestedIban.setLocality(sector);
+        nestedIban.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(nestedIban);
+        entityManager.getTransaction().commit();
+
+        // When
+        List<IbanResponse> listed = ibanRepository.findResponsesByYear(Year.of(2028));
+        List<IbanResponse> filtered = ibanRepository.findResponses(
+                (root, query, cb) -> cb.equal(root.get(Iban.NATURAL_ID_YEAR), 2028), 0L, 10);
+        List<IbanResponse> byOuterRaion = ibanRepository.findResponsesByYearAndRaionCode(Year.of(2028), "R03");
+
+        // Then
+        assertEquals(1, listed.size());
+        assertEquals("M03", listed.get(0).getRaionCode());
+        assertEquals("Municipiu 3", listed.get(0).getRaionName());
+        assertEquals(1, filtered.size());
+        assertEquals("M03", filtered.get(0).getRaionCode());
+        assertEquals(1, byOuterRaion.size());
+        assertEquals("M03", byOuterRaion.get(0).getRaionCode());
+    }
+
+    @Test
+    @DisplayName("Given a raion-level IBAN, when listing by raion, then the raion itself matches")
+    void findResponsesByYearAndRaionCode_IncludesRaionItself() {
+        // Given
+        entityManager.getTransaction().begin();
+        Iban raionIban = new Iban();
+        raionIban.setIbanCode("MD24TRPAAA14519900000001");
+        raionIban.setYear(Year.of(2027));
+        raionIban.setEcoCode(entityManager.find(EcoCode.class, "111110"));
+        raionIban.setLocality(entityManager.find(Locality.class, "R04"));
+        raionIban.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(raionIban);
+        entityManager.getTransaction().commit();
+
+        // When
+        List<IbanResponse> responses = ibanRepository.findResponsesByYearAndRaionCode(Year.of(2027), "R04");
+
+        // Then
+        assertEquals(1, responses.size());
+        assertEquals("R04", responses.get(0).getRaionCode());
+    }
+
+    @Test
+    @DisplayName("Given the entity path, when mapping parents, then statements grow with the raions touched")
+    void findByYear_EntityPath_LoadsParentsLazily() {
+        // When
+        List<Iban> ibans = ibanRepository.findByYear(Year.of(2025));
+        ibans.forEach(iban -> iban.getLocality().getParent().getName());
+
+        // Then
+        assertTrue(statistics.getPrepareStatementCount() > 1);
+    }
+
+    private void seed() {
+        entityManager.getTransaction().begin();
+
+        EcoCode ecoCode = new EcoCode("111110", "Impozit pe venitul retinut din salariu");
+        entityManager.persist(ecoCode);
+
+        for (int r = 0; r < RAIONS; r++) {
+            Locality raion = new Locality();
+            raion.setCode(String.format("R%02d", r));
+            raion.setName("Raion " + r);
+            raion.setIsRaion(true);
+            entityManager.persist(raion);
+            entityManager.persist(new LocalityAncestor(raion.getCode(), raion.getCode(), 0));
+
+            for (int l = 0; l < LOCALITIES_PER_RAION; l++) {
+                Locality locality = new Locality();
+                locality.setCode(String.format("L%02d%03d", r, l));
+                locality.setName("Localitate " + r + "/" + l);
+                locality.setParent(raion);
+                locality.setIsRaion(false);
+                entityManager.persist(locality);
+                entityManager.persist(new LocalityAncestor(locality.getCode(), locality.getCode(), 0));
+                entityManager.persist(new LocalityAncestor(raion.getCode(), locality.getCode(), 1));
+
+                Iban iban = new Iban();
+                iban.setIbanCode(String.format("MD24TRPAAA1451%02d%08d", r, l));
+                iban.setYear(Year.of(2025));
+                iban.setEcoCode(ecoCode);
+                iban.setLocality(locality);
+                iban.setCreatedDate(LocalDateTime.now());
+                entityManager.persist(iban);
+            }
+        }
+
+        // A third-level locality (raion -> locality -> sub-locality), kept in another year
+        Locality parent = entityManager.find(Locality.class, "L02000");
+        Locality subLocality = new Locality();
+        subLocality.setCode("S02000");
+        subLocality.setName("Sub-localitate");
+        subLocality.setParent(parent);
+        subLocality.setIsRaion(false);
+        entityManager.persist(subLocality);
+        entityManager.persist(new LocalityAncestor("S02000", "S02000", 0));
+        entityManager.persist(new LocalityAncestor("L02000", "S02000", 1));
+        entityManager.persist(new LocalityAncestor("R02", "S02000", 2));
+
+        Iban deepIban = new Iban();
+        deepIban.setIbanCode("MD24TRPAAA14519900000000");
+        deepIban.setYear(Year.of(2026));
+        deepIban.setEcoCode(ecoCode);
+        deepIban.setLocality(subLocality);
+        deepIban.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(deepIban);
+
+        entityManager.getTransaction().commit();
+    }
+}
@@ -0,0 +1,128 @@
+package ro.developmentfactory.back.repository;
+
+import iban.controller.dto.response.IbanRolloverDifferenceResponse;
+import iban.controller.dto.response.IbanRolloverResponse;
+import iban.repository.IbanBatchWriter;
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import iban.repository.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.Year;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IbanRolloverTest {
+
+    private LocalContainerEntityManagerFactoryBean emf;
+    private JdbcTemplate jdbcTemplate;
+    private IbanBatchWriter ibanBatchWriter;
+    private Long adminId;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = H2JpaSupport.dataSource("rollover");
+        emf = H2JpaSupport.entityManagerFactory(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        ibanBatchWriter = new IbanBatchWriter(jdbcTemplate);
+
+        EntityManager entityManager = emf.getObject().createEntityManager();
+        entityManager.getTransaction().begin();
+        EcoCode salary = new EcoCode("111110", "Impozit pe venitul retinut din salariu");
+        EcoCode vat = new EcoCode("111120", "Impozit pe venitul persoanelor fizice");
+        entityManager.persist(salary);
+        entityManager.persist(vat);
+        Locality chisinau = locality("0100", "Chişinău");
+        Locality balti = locality("0300", "Bălţi");
+        entityManager.persist(chisinau);
+        entityManager.persist(balti);
+        User admin = User.builder()
+                .username("admin")
+                .password("hash")
+                .fullName("Administrator")
+                .email("admin@example.com")
+                .build();
+        entityManager.persist(admin);
+        adminId = admin.getId();
+
+        entityManager.persist(iban("MD49TRPAAA14511001030000", 2025, salary, chisinau));
+        entityManager.persist(iban("MD22TRPAAA14511001030001", 2025, salary, balti));
+        entityManager.persist(iban("MD92TRPAAA14511001030002", 2025, vat, chisinau));
+        // Already rolled over by hand: one with the same code, one re-issued with another code
+        entityManager.persist(iban("MD49TRPAAA14511001030000", 2026, salary, chisinau));
+        entityManager.persist(iban("MD65TRPAAA14511001030003", 2026, salary, balti));
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @AfterEach
+    void tearDown() {
+        emf.destroy();
+    }
+
+    @Test
+    @DisplayName("Given a partly filled target year, when previewing a rollover, then the diff is reported without writing")
+    void previewCopyYear_ReportsDiffWithoutWriting() {
+        // When
+        IbanRolloverResponse preview = ibanBatchWriter.previewCopyYear(2025, 2026, 100);
+
+        // Then
+        assertEquals(3L, preview.getSourceRows());
+        assertEquals(1L, preview.getCopied());
+        assertEquals(1L, preview.getUnchanged());
+        assertEquals(1L, preview.getDiffering());
+        IbanRolloverDifferenceResponse difference = preview.getDifferences().get(0);
+        assertEquals("0300", difference.getLocalityCode());
+        assertEquals("MD22TRPAAA14511001030001", difference.getSourceIbanCode());
+        assertEquals("MD65TRPAAA14511001030003", difference.getTargetIbanCode());
+        assertEquals(2, countYear(2026));
+    }
+
+    @Test
+    @DisplayName("Given a partly filled target year, when rolling over twice, then only missing keys are copied once")
+    void copyYear_SkipsExistingKeysAndIsRepeatable() {
+        // When
+        int first = ibanBatchWriter.copyYear(2025, 2026, adminId, LocalDateTime.now());
+        int second = ibanBatchWriter.copyYear(2025, 2026, adminId, LocalDateTime.now());
+
+        // Then
+        assertEquals(1, first);
+        assertEquals(0, second);
+        assertEquals(3, countYear(2026));
+        assertEquals("MD65TRPAAA14511001030003", jdbcTemplate.queryForObject(
+                "SELECT iban_code FROM ibans WHERE year = 2026 AND locality_code = '0300'", String.class));
+        assertEquals(adminId, jdbcTemplate.queryForObject(
+                "SELECT created_by FROM ibans WHERE year = 2026 AND eco_code = '111120'", Long.class));
+    }
+
+    private int countYear(int year) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ibans WHERE year = ?", Integer.class, year);
+    }
+
+    private static Locality locality(String code, String name) {
+        Locality locality = new Locality();
+        locality.setCode(code);
+        locality.setName(name);
+        locality.setIsRaion(true);
+        return locality;
+    }
+
+    private static Iban iban(String ibanCode, int year, EcoCode ecoCode, Locality locality) {
+        Iban iban = new Iban();
+        iban.setIbanCode(ibanCode);
+        iban.setYear(Year.of(year));
+        iban.setEcoCode(ecoCode);
+        iban.setLocality(locality);
+        iban.setCreatedDate(LocalDateTime.now());
+        return iban;
+    }
+}
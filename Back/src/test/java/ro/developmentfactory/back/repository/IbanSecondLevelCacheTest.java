@@ -0,0 +1,107 @@
+package ro.developmentfactory.back.repository;
+
+import iban.repository.IbanRepository;
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IbanSecondLevelCacheTest {
+
+    private LocalContainerEntityManagerFactoryBean emf;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        emf = H2JpaSupport.entityManagerFactory(H2JpaSupport.dataSource("l2cache"), true);
+        statistics = emf.getObject().unwrap(SessionFactory.class).getStatistics();
+
+        EntityManager entityManager = emf.getObject().createEntityManager();
+        entityManager.getTransaction().begin();
+        EcoCode ecoCode = new EcoCode("111110", "Impozit pe venitul retinut din salariu");
+        Locality raion = new Locality();
+        raion.setCode("0100");
+        raion.setName("Chisinau");
+        raion.setIsRaion(true);
+        Locality locality = new Locality();
+        locality.setCode("0101");
+        locality.setName("Sector Botanica");
+        locality.setIsRaion(false);
+        locality.setParent(raion);
+        entityManager.persist(ecoCode);
+        entityManager.persist(raion);
+        entityManager.persist(locality);
+
+        Iban iban = new Iban();
+        iban.setIbanCode("MD49TRPAAA14511001030000");
+        iban.setYear(Year.of(2025));
+        iban.setEcoCode(ecoCode);
+        iban.setLocality(locality);
+        iban.setCreatedDate(LocalDateTime.now());
+        entityManager.persist(iban);
+        entityManager.getTransaction().commit();
+        entityManager.close();
+
+        emf.getObject().getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        emf.destroy();
+    }
+
+    @Test
+    @DisplayName("Given a warm cache, when looking up by natural id again, then no SQL is issued")
+    void findByNaturalId_SecondLookup_IsServedFromCache() {
+        // Given
+        lookup("0101");
+        long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+        // evictAll() clears the entity regions only; the natural id resolution cached on persist survives it
+        long naturalIdHitsAfterFirstLookup = statistics.getNaturalIdCacheHitCount();
+        assertTrue(statementsAfterFirstLookup > 0);
+
+        // When
+        Optional<Iban> cached = lookup("0101");
+
+        // Then
+        assertTrue(cached.isPresent());
+        assertEquals("MD49TRPAAA14511001030000", cached.get().getIbanCode());
+        assertEquals(statementsAfterFirstLookup, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount() - naturalIdHitsAfterFirstLookup);
+        assertTrue(statistics.getDomainDataRegionStatistics("iban").getHitCount() >= 1);
+    }
+
+    @Test
+    @DisplayName("Given an unknown natural id, when looking it up, then an empty result is returned")
+    void findByNaturalId_Unknown_ReturnsEmpty() {
+        // When & Then
+        assertTrue(lookup("9999").isEmpty());
+    }
+
+    private Optional<Iban> lookup(String localityCode) {
+        EntityManager entityManager = emf.getObject().createEntityManager();
+        try {
+            IbanRepository ibanRepository = H2JpaSupport.ibanRepository(entityManager);
+            Optional<Iban> iban = ibanRepository.findByNaturalId(Year.of(2025), "111110", localityCode);
+            // Touch the parent the way IbanServiceImpl.mapIbanToResponse does
+            iban.ifPresent(found -> found.getLocality().getParent().getName());
+            return iban;
+        } finally {
+            entityManager.close();
+        }
+    }
+}
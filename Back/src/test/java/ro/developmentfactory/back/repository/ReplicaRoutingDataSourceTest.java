@@ -0,0 +1,198 @@
+package ro.developmentfactory.back.repository;
+
+import iban.repository.config.HibernateConfig;
+import iban.repository.config.ReplicaLagGuard;
+import iban.repository.config.ReplicaRoutingDataSource;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes through JpaTransactionManager against two embedded databases that only differ in the
+ * row of a marker table, so each query reports which pool served it.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MS = 5_000;
+
+    private final TestClock clock = new TestClock();
+    private LocalContainerEntityManagerFactoryBean emf;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = H2JpaSupport.dataSource("routing_primary");
+        DataSource replica = H2JpaSupport.dataSource("routing_replica");
+        markDatabase(primary, "primary");
+        markDatabase(replica, "replica");
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica,
+                new ReplicaLagGuard(MAX_LAG_MS, clock));
+        routing.afterPropertiesSet();
+
+        emf = H2JpaSupport.entityManagerFactory(new LazyConnectionDataSourceProxy(routing), false, "create-drop",
+                HibernateConfig::applyReplicaRouting);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(emf.getObject());
+        JpaTransactionManager transactionManager = new JpaTransactionManager(emf.getObject());
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        emf.destroy();
+    }
+
+    @Test
+    @DisplayName("Given a read-only transaction, when querying, then the replica serves it")
+    void readOnlyTransaction_UsesReplica() {
+        // When & Then
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+    }
+
+    @Test
+    @DisplayName("Given a read-write transaction, when querying, then the primary serves it")
+    void readWriteTransaction_UsesPrimary() {
+        // When & Then
+        assertEquals("primary", readWrite.execute(status -> servedBy()));
+    }
+
+    @Test
+    @DisplayName("Given a user who just committed a write, when they read within the lag window, then the primary serves it")
+    void readAfterOwnWrite_WithinLagWindow_UsesPrimary() {
+        // Given
+        authenticateAs("operator");
+        readWrite.execute(status -> servedBy());
+
+        // When
+        clock.advance(MAX_LAG_MS - 1);
+        String ownRead = readOnly.execute(status -> servedBy());
+        authenticateAs("other");
+        String otherRead = readOnly.execute(status -> servedBy());
+
+        // Then
+        assertEquals("primary", ownRead);
+        assertEquals("replica", otherRead);
+    }
+
+    @Test
+    @DisplayName("Given the lag window has passed, when the writer reads again, then the replica serves it")
+    void readAfterOwnWrite_AfterLagWindow_UsesReplica() {
+        // Given
+        authenticateAs("operator");
+        readWrite.execute(status -> servedBy());
+
+        // When
+        clock.advance(MAX_LAG_MS);
+
+        // Then
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+    }
+
+    @Test
+    @DisplayName("Given a rolled back write, when the same user reads, then the replica serves it")
+    void readAfterRolledBackWrite_UsesReplica() {
+        // Given
+        authenticateAs("operator");
+        readWrite.execute(status -> {
+            servedBy();
+            status.setRollbackOnly();
+            return null;
+        });
+
+        // When & Then
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+    }
+
+    @Test
+    @DisplayName("Given one EntityManager kept open across transactions (open-in-view), when a read and a write follow each other, then each is routed on its own")
+    void transactionsSharingEntityManager_AreRoutedIndependently() {
+        // Given: what OpenEntityManagerInViewInterceptor binds for the whole request
+        EntityManager requestEntityManager = emf.getObject().createEntityManager();
+        TransactionSynchronizationManager.bindResource(emf.getObject(), new EntityManagerHolder(requestEntityManager));
+        try {
+            // When
+            String firstRead = readOnly.execute(status -> servedBy());
+            String write = readWrite.execute(status -> servedBy());
+            String secondRead = readOnly.execute(status -> servedBy());
+
+            // Then
+            assertEquals("replica", firstRead);
+            assertEquals("primary", write);
+            assertEquals("replica", secondRead);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(emf.getObject());
+            requestEntityManager.close();
+        }
+    }
+
+    private String servedBy() {
+        return (String) entityManager.createNativeQuery("SELECT name FROM db_marker").getSingleResult();
+    }
+
+    private static void markDatabase(DataSource dataSource, String name) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS db_marker");
+        jdbcTemplate.execute("CREATE TABLE db_marker (name VARCHAR(16) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO db_marker (name) VALUES (?)", name);
+    }
+
+    private static void authenticateAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static final class TestClock extends Clock {
+
+        private long millis = 1_000_000;
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
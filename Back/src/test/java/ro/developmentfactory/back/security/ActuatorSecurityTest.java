@@ -0,0 +1,165 @@
+package ro.developmentfactory.back.security;
+
+import iban.repository.entity.Role;
+import iban.repository.entity.User;
+import iban.security.AuthEntryPointJwt;
+import iban.security.JwtTokenProvider;
+import iban.security.TokenVersionRegistry;
+import iban.security.WebSecurityConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig(ActuatorSecurityTest.Config.class)
+@TestPropertySource(properties = {
+        "app.jwtSecret=c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS1tdXN0LWJlLWxvbmctZW5vdWdoLTI1Ni1iaXQ=",
+        "app.jwtExpirationMs=60000",
+        "app.metrics.username=prometheus",
+        "app.metrics.password=scrape-secret",
+        "app.security.bcryptStrength=4"
+})
+class ActuatorSecurityTest {
+
+    private static final String METRICS = "# TYPE jvm_threads_live_threads gauge\n";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+        // The mock is a context bean shared by every test, so stub without invoking it
+        doReturn(true).when(tokenVersionRegistry).isCurrent(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Given no credentials, when requesting health, then it is served anonymously")
+    void health_WithoutCredentials_Returns200() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Given no credentials, when scraping, then responds 401 with a basic auth challenge")
+    void prometheus_WithoutCredentials_Returns401() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/prometheus").header("Origin", "https://evil.example"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists("WWW-Authenticate"))
+                .andExpect(header().doesNotExist("Access-Control-Allow-Origin"));
+    }
+
+    @Test
+    @DisplayName("Given the metrics user, when scraping, then the metrics are returned")
+    void prometheus_WithMetricsUser_Returns200() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(METRICS));
+    }
+
+    @Test
+    @DisplayName("Given a wrong password, when scraping, then responds 401")
+    void prometheus_WithWrongPassword_Returns401() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "guess")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Given an API admin token, when scraping, then it is not accepted in place of the metrics user")
+    void prometheus_WithAdminToken_Returns401() throws Exception {
+        // Given
+        String token = tokenProvider.generateToken(admin());
+
+        // When / Then
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static User admin() {
+        Role role = new Role();
+        role.setName(Role.ERole.ROLE_ADMIN);
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+        user.setTokenVersion(0);
+        user.setRoles(Set.of(role));
+        return user;
+    }
+
+    // Stands in for the actuator endpoints, which this slice does not auto-configure
+    @RestController
+    static class ActuatorStub {
+
+        @GetMapping("/actuator/health")
+        String health() {
+            return "{\"status\":\"UP\"}";
+        }
+
+        @GetMapping("/actuator/prometheus")
+        String prometheus() {
+            return METRICS;
+        }
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import({WebSecurityConfig.class, AuthEntryPointJwt.class, JwtTokenProvider.class, ActuatorStub.class})
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        UserDetailsService userDetailsService() {
+            return mock(UserDetailsService.class);
+        }
+
+        @Bean
+        TokenVersionRegistry tokenVersionRegistry() {
+            return mock(TokenVersionRegistry.class);
+        }
+    }
+}
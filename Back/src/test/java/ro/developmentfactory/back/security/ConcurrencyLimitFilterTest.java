@@ -0,0 +1,89 @@
+package ro.developmentfactory.back.security;
+
+import iban.security.ConcurrencyLimitFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    @Test
+    @DisplayName("Given many virtual threads, when filtering, then concurrency never exceeds the permits and all complete")
+    void doFilter_WithManyVirtualThreads_BoundsConcurrency() throws Exception {
+        // Given
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(4, 10_000);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        // When
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                statuses.add(executor.submit(() -> {
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    filter.doFilter(new MockHttpServletRequest("GET", "/api/ibans"), response, (req, res) -> {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(2);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                    return response.getStatus();
+                }));
+            }
+        }
+
+        // Then
+        for (Future<Integer> status : statuses) {
+            assertEquals(200, status.get());
+        }
+        assertTrue(maxInFlight.get() <= 4, "max in flight was " + maxInFlight.get());
+        assertEquals(4, filter.getAvailablePermits());
+    }
+
+    @Test
+    @DisplayName("Given all permits held, when acquire times out, then responds 503 with Retry-After")
+    void doFilter_WhenPermitsExhausted_Returns503() throws Exception {
+        // Given
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 20);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.startVirtualThread(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/ibans"), new MockHttpServletResponse(), (req, res) -> {
+                    holding.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        holding.await();
+
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/ibans"), response, (req, res) -> fail("should not be admitted"));
+        release.countDown();
+        holder.join();
+
+        // Then
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(1, filter.getAvailablePermits());
+    }
+}
@@ -0,0 +1,157 @@
+package ro.developmentfactory.back.security;
+
+import iban.controller.IbanController;
+import iban.repository.entity.Role;
+import iban.repository.entity.User;
+import iban.security.AuthEntryPointJwt;
+import iban.security.JwtTokenProvider;
+import iban.security.TokenVersionRegistry;
+import iban.security.WebSecurityConfig;
+import iban.service.IbanDatasetVersions;
+import iban.service.IbanImportService;
+import iban.service.IbanService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig(IbanExportSecurityTest.Config.class)
+@TestPropertySource(properties = {
+        "app.jwtSecret=c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS1tdXN0LWJlLWxvbmctZW5vdWdoLTI1Ni1iaXQ=",
+        "app.jwtExpirationMs=60000"
+})
+class IbanExportSecurityTest {
+
+    private static final String CSV = "ID,Cod IBAN\n1,MD24TRPAAA518041000000\n";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private IbanService ibanService;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+        // The mocks are context beans shared by every test, so stub without invoking them
+        doReturn(true).when(tokenVersionRegistry).isCurrent(anyLong(), anyInt());
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write(CSV.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(ibanService).exportAllIbansAsCsv(any());
+    }
+
+    @Test
+    @DisplayName("Given an operator token, when the streamed export is dispatched, then the async dispatch completes with the CSV")
+    void export_WithOperatorToken_StreamsCsvThroughAsyncDispatch() throws Exception {
+        // Given
+        String token = tokenProvider.generateToken(user(Role.ERole.ROLE_OPERATOR));
+
+        // When
+        MvcResult started = mockMvc.perform(get("/api/ibans/export").header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CSV));
+    }
+
+    @Test
+    @DisplayName("Given no token, when requesting the export, then responds 401 before any streaming starts")
+    void export_WithoutToken_Returns401() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/api/ibans/export"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static User user(Role.ERole roleName) {
+        Role role = new Role();
+        role.setName(roleName);
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("operator");
+        user.setTokenVersion(0);
+        user.setRoles(Set.of(role));
+        return user;
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import({WebSecurityConfig.class, AuthEntryPointJwt.class, JwtTokenProvider.class, IbanController.class})
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        UserDetailsService userDetailsService() {
+            return mock(UserDetailsService.class);
+        }
+
+        @Bean
+        TokenVersionRegistry tokenVersionRegistry() {
+            return mock(TokenVersionRegistry.class);
+        }
+
+        @Bean
+        IbanService ibanService() {
+            return mock(IbanService.class);
+        }
+
+        @Bean
+        IbanImportService ibanImportService() {
+            return mock(IbanImportService.class);
+        }
+
+        @Bean
+        IbanDatasetVersions ibanDatasetVersions() {
+            return mock(IbanDatasetVersions.class);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package ro.developmentfactory.back.security;
+
+import iban.repository.entity.Role;
+import iban.repository.entity.User;
+import iban.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS1tdXN0LWJlLWxvbmctZW5vdWdoLTI1Ni1iaXQ=";
+    private static final int EXPIRATION_MS = 60_000;
+
+    private final TestClock clock = new TestClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Given a verified token, when it is parsed again, then the cached claims are returned without verifying")
+    void parseClaims_SecondTime_ServedFromCache() {
+        // Given
+        JwtTokenProvider tokenProvider = tokenProvider(10);
+        String token = tokenProvider.generateToken(user("operator"));
+        Claims first = tokenProvider.parseClaims(token);
+
+        // When
+        Claims second = tokenProvider.parseClaims(token);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, verifications("verified"));
+        assertEquals(1, verifications("cached"));
+        assertEquals(1, cacheSize());
+    }
+
+    @Test
+    @DisplayName("Given a cached token past its expiry, when parsing, then it is verified again and rejected")
+    void parseClaims_ExpiredCachedToken_IsReverifiedAndRejected() {
+        // Given
+        JwtTokenProvider tokenProvider = tokenProvider(10);
+        String token = tokenProvider.generateToken(user("operator"));
+        assertNotNull(tokenProvider.parseClaims(token));
+        clock.advance(EXPIRATION_MS + 1_000);
+
+        // When
+        Claims claims = tokenProvider.parseClaims(token);
+
+        // Then
+        assertNull(claims);
+        assertEquals(0, verifications("cached"));
+        assertEquals(1, verifications("rejected"));
+        assertEquals(0, cacheSize());
+    }
+
+    @Test
+    @DisplayName("Given a full cache, when a new token is verified, then expired entries go first and the rest only if still full")
+    void parseClaims_FullCache_EvictsExpiredThenClears() {
+        // Given
+        JwtTokenProvider tokenProvider = tokenProvider(2);
+        String older = tokenProvider.generateToken(user("operator"));
+        tokenProvider.parseClaims(older);
+        clock.advance(30_000);
+        String newer = tokenProvider.generateToken(user("operator"));
+        tokenProvider.parseClaims(newer);
+        clock.advance(31_000);
+
+        // When: the older entry has expired, so only it makes room
+        tokenProvider.parseClaims(tokenProvider.generateToken(user("admin")));
+
+        // Then
+        assertEquals(2, cacheSize());
+        tokenProvider.parseClaims(newer);
+        assertEquals(1, verifications("cached"));
+
+        // When: nothing has expired and the cache is still full, so it is cleared
+        clock.advance(1_000);
+        tokenProvider.parseClaims(tokenProvider.generateToken(user("auditor")));
+
+        // Then
+        assertEquals(1, cacheSize());
+        tokenProvider.parseClaims(newer);
+        assertEquals(1, verifications("cached"));
+    }
+
+    @Test
+    @DisplayName("Given a cached token, when its payload is altered, then the altered token is rejected, not served from the cache")
+    void parseClaims_TamperedToken_IsRejected() {
+        // Given
+        JwtTokenProvider tokenProvider = tokenProvider(10);
+        String token = tokenProvider.generateToken(user("operator"));
+        assertNotNull(tokenProvider.parseClaims(token));
+
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.replace("\"operator\"", "\"admin\"").getBytes(StandardCharsets.UTF_8));
+        String tampered = parts[0] + "." + forged + "." + parts[2];
+
+        // When
+        Claims claims = tokenProvider.parseClaims(tampered);
+
+        // Then
+        assertNull(claims);
+        assertEquals(0, verifications("cached"));
+        assertEquals(1, verifications("rejected"));
+        assertEquals(1, cacheSize());
+    }
+
+    private JwtTokenProvider tokenProvider(int cacheSize) {
+        return new JwtTokenProvider(SECRET, EXPIRATION_MS, cacheSize, meterRegistry, clock);
+    }
+
+    private long verifications(String result) {
+        return meterRegistry.get("jwt.verification").tag("result", result).timer().count();
+    }
+
+    private double cacheSize() {
+        return meterRegistry.get("jwt.cache.size").gauge().value();
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .id(1L)
+                .username(username)
+                .tokenVersion(0)
+                .roles(Set.of(new Role(1L, Role.ERole.ROLE_OPERATOR)))
+                .build();
+    }
+
+    private static final class TestClock extends Clock {
+
+        private long millis = 1_700_000_000_000L;
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ro.developmentfactory.back.service;
+
+import iban.controller.dto.request.LoginRequest;
+import iban.controller.dto.response.JwtResponse;
+import iban.exception.CustomException;
+import iban.repository.UserRepository;
+import iban.repository.entity.Role;
+import iban.repository.entity.User;
+import iban.security.JwtTokenProvider;
+import iban.security.PasswordHashingExecutor;
+import iban.service.AuthServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(5);
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private AuthServiceImpl authService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        passwordHashingExecutor = new PasswordHashingExecutor(1, 4, new SimpleMeterRegistry());
+        authService = new AuthServiceImpl(jwtTokenProvider, userRepository, passwordEncoder, passwordHashingExecutor);
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("operator");
+        user.setEmail("operator@example.com");
+        user.setPassword(passwordEncoder.encode("secret"));
+        user.setRoles(Set.of(new Role(2L, Role.ERole.ROLE_OPERATOR)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Given valid credentials, when logging in, then user is fetched once and a token is issued")
+    void authenticateUser_WithValidCredentials_ReturnsToken() {
+        // Given
+        when(userRepository.findByUsername("operator")).thenReturn(Optional.of(user));
+        when(jwtTokenProvider.generateToken(user)).thenReturn("token");
+
+        // When
+        JwtResponse response = authService.authenticateUser(login("operator", "secret")).join();
+
+        // Then
+        assertEquals("token", response.getToken());
+        assertEquals(java.util.List.of("ROLE_OPERATOR"), response.getRoles());
+        verify(userRepository, times(1)).findByUsername("operator");
+        verify(userRepository, never()).updatePassword(anyLong(), anyString(), anyString());
+        assertEquals(1L, passwordHashingExecutor.getStats().getCompleted());
+    }
+
+    @Test
+    @DisplayName("Given wrong password, when logging in, then fails with 401")
+    void authenticateUser_WithWrongPassword_ThrowsUnauthorized() {
+        // Given
+        when(userRepository.findByUsername("operator")).thenReturn(Optional.of(user));
+
+        // When
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> authService.authenticateUser(login("operator", "wrong")).join());
+
+        // Then
+        CustomException cause = assertInstanceOf(CustomException.class, exception.getCause());
+        assertEquals(HttpStatus.UNAUTHORIZED, cause.getStatus());
+        verify(jwtTokenProvider, never()).generateToken(any());
+    }
+
+    @Test
+    @DisplayName("Given unknown username, when logging in, then fails with 401 after a dummy hash check")
+    void authenticateUser_WithUnknownUser_ThrowsUnauthorized() {
+        // Given
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        // When
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> authService.authenticateUser(login("ghost", "secret")).join());
+
+        // Then
+        assertEquals(HttpStatus.UNAUTHORIZED, ((CustomException) exception.getCause()).getStatus());
+        assertEquals(1L, passwordHashingExecutor.getStats().getCompleted());
+    }
+
+    @Test
+    @DisplayName("Given hash stored with a lower cost, when logging in, then password is rehashed")
+    void authenticateUser_WithOlderCost_RehashesPassword() {
+        // Given
+        String oldHash = new BCryptPasswordEncoder(4).encode("secret");
+        user.setPassword(oldHash);
+        when(userRepository.findByUsername("operator")).thenReturn(Optional.of(user));
+        when(userRepository.updatePassword(eq(1L), eq(oldHash), anyString())).thenReturn(1);
+        when(jwtTokenProvider.generateToken(user)).thenReturn("token");
+
+        // When
+        authService.authenticateUser(login("operator", "secret")).join();
+
+        // Then
+        verify(userRepository).updatePassword(eq(1L), eq(oldHash), argThat(hash -> hash.startsWith("$2a$05$")));
+    }
+
+    private LoginRequest login(String username, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setUsername(username);
+        request.setPassword(password);
+        return request;
+    }
+}
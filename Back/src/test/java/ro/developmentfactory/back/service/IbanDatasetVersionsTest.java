@@ -0,0 +1,69 @@
+package ro.developmentfactory.back.service;
+
+import iban.service.IbanChangedEvent;
+import iban.service.IbanDatasetVersions;
+import iban.service.ReferenceDataCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IbanDatasetVersionsTest {
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @InjectMocks
+    private IbanDatasetVersions datasetVersions;
+
+    @Test
+    @DisplayName("Given a write to one year, when reading tags, then only that year and the global tag change")
+    void onIbanChanged_OneYear_ChangesOnlyThatYear() {
+        // Given
+        String all = datasetVersions.ibansTag();
+        String year2025 = datasetVersions.yearTag(2025);
+        String year2026 = datasetVersions.yearTag(2026);
+
+        // When
+        datasetVersions.onIbanChanged(new IbanChangedEvent(Set.of(2026)));
+
+        // Then
+        assertNotEquals(all, datasetVersions.ibansTag());
+        assertEquals(year2025, datasetVersions.yearTag(2025));
+        assertNotEquals(year2026, datasetVersions.yearTag(2026));
+    }
+
+    @Test
+    @DisplayName("Given a write with unknown years, when reading tags, then every year tag changes")
+    void onIbanChanged_UnknownYears_ChangesEveryYear() {
+        // Given
+        String year2025 = datasetVersions.yearTag(2025);
+
+        // When
+        datasetVersions.onIbanChanged(new IbanChangedEvent(Set.of()));
+
+        // Then
+        assertNotEquals(year2025, datasetVersions.yearTag(2025));
+    }
+
+    @Test
+    @DisplayName("Given a reference data change, when reading tags, then reference and IBAN tags change")
+    void referenceDataVersion_IsPartOfIbanTags() {
+        // Given
+        when(referenceDataCache.getVersion()).thenReturn(1L, 1L, 2L, 2L);
+        String reference = datasetVersions.referenceDataTag();
+        String all = datasetVersions.ibansTag();
+
+        // When & Then
+        assertNotEquals(reference, datasetVersions.referenceDataTag());
+        assertNotEquals(all, datasetVersions.ibansTag());
+    }
+}
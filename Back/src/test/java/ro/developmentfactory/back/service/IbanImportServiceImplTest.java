@@ -0,0 +1,130 @@
+package ro.developmentfactory.back.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import iban.controller.dto.response.IbanImportResponse;
+import iban.controller.dto.response.IbanImportRowResponse;
+import iban.repository.IbanBatchWriter;
+import iban.repository.UserRepository;
+import iban.repository.entity.EcoCode;
+import iban.repository.entity.Iban;
+import iban.repository.entity.Locality;
+import iban.repository.entity.User;
+import iban.service.IbanChangedEvent;
+import iban.service.IbanImportServiceImpl;
+import iban.service.ReferenceDataCache;
+import iban.validator.IbanValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IbanImportServiceImplTest {
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private IbanBatchWriter ibanBatchWriter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private IbanImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new IbanImportServiceImpl(referenceDataCache, userRepository, ibanBatchWriter,
+                new IbanValidator(), new ObjectMapper(), transactionManager, eventPublisher, 500);
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+
+        Locality locality = new Locality();
+        locality.setCode("0100");
+        locality.setName("Chișinău");
+        locality.setIsRaion(true);
+        lenient().when(referenceDataCache.findEcoCode("111110"))
+                .thenReturn(Optional.of(new EcoCode("111110", "Impozit pe venitul reținut din salariu")));
+        lenient().when(referenceDataCache.findEcoCode("999999")).thenReturn(Optional.empty());
+        lenient().when(referenceDataCache.findLocality("0100")).thenReturn(Optional.of(locality));
+    }
+
+    @Test
+    @DisplayName("Given a CSV with valid, invalid and duplicate rows, when importing, then each row is reported with its line")
+    void importCsv_WithMixedRows_ReportsEachOutcome() {
+        // Given
+        String csv = "ibanCode,year,ecoCode,localityCode\n" +
+                "MD49TRPAAA14511001030000,2025,111110,0100\n" +
+                "MD22TRPAAA14511001030001,2026,111110,0100\n" +
+                "MD22TRPAAA14511001030001,2026,111110,0100\n" +
+                "XX00,2025,111110,0100\n" +
+                "MD92TRPAAA14511001030002,2025,999999,0100\n" +
+                "MD92TRPAAA14511001030002,abc,111110,0100\n";
+        when(ibanBatchWriter.insertIfAbsent(any())).thenReturn(new int[]{1, 0});
+
+        // When
+        IbanImportResponse response = importService.importCsv(stream(csv), "admin");
+
+        // Then
+        assertEquals(1, response.getAccepted());
+        assertEquals(2, response.getDuplicates());
+        assertEquals(3, response.getInvalid());
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L),
+                response.getRejectedRows().stream().map(IbanImportRowResponse::getLine).toList());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Iban>> batch = ArgumentCaptor.forClass(List.class);
+        verify(ibanBatchWriter, times(1)).insertIfAbsent(batch.capture());
+        assertEquals(2, batch.getValue().size());
+    }
+
+    @Test
+    @DisplayName("Given NDJSON rows, when importing, then rows are written in batches of the configured size")
+    void importNdjson_WritesInBatches() {
+        // Given
+        importService = new IbanImportServiceImpl(referenceDataCache, userRepository, ibanBatchWriter,
+                new IbanValidator(), new ObjectMapper(), transactionManager, eventPublisher, 2);
+        String ndjson = "{\"ibanCode\":\"MD49TRPAAA14511001030000\",\"year\":2025,\"ecoCode\":\"111110\",\"localityCode\":\"0100\"}\n" +
+                "{\"ibanCode\":\"MD22TRPAAA14511001030001\",\"year\":2026,\"ecoCode\":\"111110\",\"localityCode\":\"0100\"}\n" +
+                "not json\n" +
+                "{\"ibanCode\":\"MD92TRPAAA14511001030002\",\"year\":2027,\"ecoCode\":\"111110\",\"localityCode\":\"0100\"}\n";
+        when(ibanBatchWriter.insertIfAbsent(any())).thenReturn(new int[]{1, 1}, new int[]{1});
+
+        // When
+        IbanImportResponse response = importService.importNdjson(stream(ndjson), "admin");
+
+        // Then
+        assertEquals(3, response.getAccepted());
+        assertEquals(1, response.getInvalid());
+        assertEquals(3L, response.getRejectedRows().get(0).getLine());
+        verify(ibanBatchWriter, times(2)).insertIfAbsent(any());
+        verify(eventPublisher, times(2)).publishEvent(any(IbanChangedEvent.class));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,83 @@
+package ro.developmentfactory.back.service;
+
+import iban.controller.dto.response.IbanRolloverResponse;
+import iban.repository.IbanBatchWriter;
+import iban.repository.UserRepository;
+import iban.repository.entity.User;
+import iban.service.IbanChangedEvent;
+import iban.service.IbanRolloverServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IbanRolloverServiceImplTest {
+
+    @Mock
+    private IbanBatchWriter ibanBatchWriter;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private IbanRolloverServiceImpl rolloverService;
+
+    @BeforeEach
+    void setUp() {
+        rolloverService = new IbanRolloverServiceImpl(ibanBatchWriter, userRepository, eventPublisher);
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    @DisplayName("Given a real rollover, when copying, then only the INSERT…SELECT runs and its count is reported")
+    void rollover_NotDryRun_CopiesWithoutPreview() {
+        // Given
+        when(ibanBatchWriter.copyYear(eq(2025), eq(2026), eq(1L), any())).thenReturn(3);
+
+        // When
+        IbanRolloverResponse response = rolloverService.rollover(2025, null, false, "admin");
+
+        // Then
+        verify(ibanBatchWriter, never()).previewCopyYear(anyInt(), anyInt(), anyInt());
+        assertFalse(response.getDryRun());
+        assertEquals(2026, response.getTargetYear());
+        assertEquals(3L, response.getCopied());
+        verify(eventPublisher).publishEvent(any(IbanChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Given a dry run, when rolling over, then only the preview runs and nothing is copied")
+    void rollover_DryRun_PreviewsWithoutCopy() {
+        // Given
+        IbanRolloverResponse preview = new IbanRolloverResponse(2025, 2026, true, 3L, 2L, 1L, 0L, List.of());
+        when(ibanBatchWriter.previewCopyYear(2025, 2026, 1_000)).thenReturn(preview);
+
+        // When
+        IbanRolloverResponse response = rolloverService.rollover(2025, 2026, true, "admin");
+
+        // Then
+        assertSame(preview, response);
+        verify(ibanBatchWriter, never()).copyYear(anyInt(), anyInt(), anyLong(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+}
@@ -1,18 +1,22 @@
 package ro.developmentfactory.back.service;
 
+import iban.controller.dto.request.IbanFilterRequest;
 import iban.controller.dto.request.IbanRequest;
+import iban.controller.dto.response.EcoCodeResponse;
+import iban.controller.dto.response.IbanPageResponse;
 import iban.controller.dto.response.IbanResponse;
 import iban.exception.CustomException;
-import iban.repository.EcoCodeRepository;
 import iban.repository.IbanRepository;
-import iban.repository.LocalityRepository;
 import iban.repository.UserRepository;
 import iban.repository.entity.EcoCode;
 import iban.repository.entity.Iban;
 import iban.repository.entity.Locality;
 import iban.repository.entity.User;
+import iban.service.IbanChangedEvent;
 import iban.service.IbanServiceImpl;
+import iban.service.ReferenceDataCache;
 import iban.util.CsvExporter;
+import iban.util.PageCursor;
 import iban.validator.IbanValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,16 +25,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 
+import java.io.ByteArrayOutputStream;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.Year;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,10 +54,7 @@ class IbanServiceImplTest {
     private IbanRepository ibanRepository;
 
     @Mock
-    private EcoCodeRepository ecoCodeRepository;
-
-    @Mock
-    private LocalityRepository localityRepository;
+    private ReferenceDataCache referenceDataCache;
 
     @Mock
     private UserRepository userRepository;
@@ -54,6 +65,9 @@ class IbanServiceImplTest {
     @Mock
     private IbanValidator ibanValidator;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private IbanServiceImpl ibanService;
 
@@ -98,11 +112,10 @@ class IbanServiceImplTest {
     @DisplayName("Given valid IBAN data, when creating IBAN, then returns IBAN response")
     void createIban_WithValidData_ReturnsIbanResponse() {
         // Given
-        when(ecoCodeRepository.findById("111110")).thenReturn(Optional.of(ecoCode));
-        when(localityRepository.findById("0100")).thenReturn(Optional.of(locality));
+        when(referenceDataCache.findEcoCode("111110")).thenReturn(Optional.of(ecoCode));
+        when(referenceDataCache.findLocality("0100")).thenReturn(Optional.of(locality));
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
-        when(ibanRepository.findByYearAndEcoCodeAndLocality(any(), any(), any())).thenReturn(Optional.empty());
-        when(ibanRepository.save(any(Iban.class))).thenReturn(iban);
+        when(ibanRepository.saveAndFlush(any(Iban.class))).thenReturn(iban);
 
         // When
         IbanResponse response = ibanService.createIban(validIbanRequest, "admin");
@@ -114,31 +127,49 @@ class IbanServiceImplTest {
         assertEquals("111110", response.getEcoCode());
         assertEquals("0100", response.getLocalityCode());
         verify(ibanValidator).validate(validIbanRequest);
-        verify(ibanRepository).save(any(Iban.class));
+        verify(ibanRepository).saveAndFlush(any(Iban.class));
+        verify(ibanRepository, never()).findByYearAndEcoCodeAndLocality(any(), any(), any());
     }
 
     @Test
     @DisplayName("Given duplicate IBAN data, when creating IBAN, then throws exception")
     void createIban_WithDuplicateData_ThrowsException() {
         // Given
-        when(ecoCodeRepository.findById("111110")).thenReturn(Optional.of(ecoCode));
-        when(localityRepository.findById("0100")).thenReturn(Optional.of(locality));
+        when(referenceDataCache.findEcoCode("111110")).thenReturn(Optional.of(ecoCode));
+        when(referenceDataCache.findLocality("0100")).thenReturn(Optional.of(locality));
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
-        when(ibanRepository.findByYearAndEcoCodeAndLocality(any(), any(), any())).thenReturn(Optional.of(iban));
+        when(ibanRepository.saveAndFlush(any(Iban.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("Cannot insert duplicate key row in object 'dbo.ibans' with unique index 'UX_ibans_year_eco_locality'.")));
 
         // When & Then
         CustomException exception = assertThrows(CustomException.class,
                 () -> ibanService.createIban(validIbanRequest, "admin"));
         assertEquals(HttpStatus.CONFLICT, exception.getStatus());
         assertTrue(exception.getMessage().contains("IBAN-ul există deja"));
-        verify(ibanRepository, never()).save(any(Iban.class));
+    }
+
+    @Test
+    @DisplayName("Given another integrity violation, when creating IBAN, then the original exception is rethrown")
+    void createIban_WithOtherIntegrityViolation_RethrowsException() {
+        // Given
+        when(referenceDataCache.findEcoCode("111110")).thenReturn(Optional.of(ecoCode));
+        when(referenceDataCache.findLocality("0100")).thenReturn(Optional.of(locality));
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+        when(ibanRepository.saveAndFlush(any(Iban.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("The INSERT statement conflicted with the FOREIGN KEY constraint 'FK_ibans_created_by'.")));
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class,
+                () -> ibanService.createIban(validIbanRequest, "admin"));
     }
 
     @Test
     @DisplayName("Given invalid eco code, when creating IBAN, then throws exception")
     void createIban_WithInvalidEcoCode_ThrowsException() {
         // Given
-        when(ecoCodeRepository.findById("111110")).thenReturn(Optional.empty());
+        when(referenceDataCache.findEcoCode("111110")).thenReturn(Optional.empty());
 
         // When & Then
         CustomException exception = assertThrows(CustomException.class,
@@ -151,7 +182,7 @@ class IbanServiceImplTest {
     @DisplayName("Given valid IBAN ID, when getting IBAN by ID, then returns IBAN response")
     void getIbanById_WithValidId_ReturnsIbanResponse() {
         // Given
-        when(ibanRepository.findById(1L)).thenReturn(Optional.of(iban));
+        when(ibanRepository.findResponseById(1L)).thenReturn(Optional.of(ibanResponse(1L)));
 
         // When
         IbanResponse response = ibanService.getIbanById(1L);
@@ -166,7 +197,7 @@ class IbanServiceImplTest {
     @DisplayName("Given invalid IBAN ID, when getting IBAN by ID, then throws exception")
     void getIbanById_WithInvalidId_ThrowsException() {
         // Given
-        when(ibanRepository.findById(999L)).thenReturn(Optional.empty());
+        when(ibanRepository.findResponseById(999L)).thenReturn(Optional.empty());
 
         // When & Then
         CustomException exception = assertThrows(CustomException.class,
@@ -176,32 +207,82 @@ class IbanServiceImplTest {
     }
 
     @Test
-    @DisplayName("Given valid data, when updating IBAN, then returns updated IBAN response")
-    void updateIban_WithValidData_ReturnsUpdatedIbanResponse() {
+    @DisplayName("Given a matching If-Match version, when updating IBAN, then one guarded update is issued")
+    void updateIban_WithMatchingVersion_IssuesSingleGuardedUpdate() {
         // Given
-        when(ibanRepository.findById(1L)).thenReturn(Optional.of(iban));
-        when(ecoCodeRepository.findById("111110")).thenReturn(Optional.of(ecoCode));
-        when(localityRepository.findById("0100")).thenReturn(Optional.of(locality));
-        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
-        when(ibanRepository.findByYearAndEcoCodeAndLocality(any(), any(), any())).thenReturn(Optional.empty());
-        when(ibanRepository.save(any(Iban.class))).thenReturn(iban);
+        when(referenceDataCache.findEcoCode("111110")).thenReturn(Optional.of(ecoCode));
+        when(referenceDataCache.findLocality("0100")).thenReturn(Optional.of(locality));
+        when(ibanRepository.updateIfUnchanged(1L, 2025, 3L, "MD24TRPAAA14511001030000", 2025, "111110", "0100", 1L))
+                .thenReturn(1);
 
         // When
-        IbanResponse response = ibanService.updateIban(1L, validIbanRequest, "admin");
+        IbanResponse response = ibanService.updateIban(1L, validIbanRequest, "admin", 1L, 3L);
 
         // Then
-        assertNotNull(response);
         assertEquals("MD24TRPAAA14511001030000", response.getIbanCode());
+        assertEquals(4L, response.getVersion());
+        assertEquals("0100", response.getRaionCode());
         verify(ibanValidator).validate(validIbanRequest);
-        verify(ibanRepository).save(any(Iban.class));
+        verify(ibanRepository, never()).findVersionById(any());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Given a stale If-Match version, when updating IBAN, then throws precondition failed")
+    void updateIban_WithStaleVersion_ThrowsPreconditionFailed() {
+        // Given
+        when(referenceDataCache.findEcoCode("111110")).thenReturn(Optional.of(ecoCode));
+        when(referenceDataCache.findLocality("0100")).thenReturn(Optional.of(locality));
+        when(ibanRepository.updateIfUnchanged(eq(1L), eq(2025), eq(3L), any(), anyInt(), any(), any(), any()))
+                .thenReturn(0);
+        when(ibanRepository.findVersionById(1L)).thenReturn(Optional.of(versionView(2025, 4L)));
+
+        // When & Then
+        CustomException exception = assertThrows(CustomException.class,
+                () -> ibanService.updateIban(1L, validIbanRequest, "admin", 1L, 3L));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatus());
+        verify(ibanRepository, times(1)).updateIfUnchanged(any(), any(), any(), any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Given no If-Match and a year change, when updating IBAN, then update is guarded by the version read")
+    void updateIban_WithoutVersionAcrossYears_GuardsOnCurrentVersion() {
+        // Given
+        when(referenceDataCache.findEcoCode("111110")).thenReturn(Optional.of(ecoCode));
+        when(referenceDataCache.findLocality("0100")).thenReturn(Optional.of(locality));
+        when(ibanRepository.findVersionById(1L)).thenReturn(Optional.of(versionView(2024, 7L)));
+        when(ibanRepository.updateIfUnchanged(1L, 2024, 7L, "MD24TRPAAA14511001030000", 2025, "111110", "0100", 1L))
+                .thenReturn(1);
+
+        // When
+        IbanResponse response = ibanService.updateIban(1L, validIbanRequest, "admin", 1L, null);
+
+        // Then
+        assertEquals(8L, response.getVersion());
+        assertEquals(2025, response.getYear());
+        verify(eventPublisher).publishEvent(new IbanChangedEvent(Set.of(2024, 2025)));
+    }
+
+    @Test
+    @DisplayName("Given no user id in the token, when updating IBAN, then throws not found before any update")
+    void updateIban_WithoutUserId_ThrowsNotFound() {
+        // Given
+        when(referenceDataCache.findEcoCode("111110")).thenReturn(Optional.of(ecoCode));
+        when(referenceDataCache.findLocality("0100")).thenReturn(Optional.of(locality));
+
+        // When & Then
+        CustomException exception = assertThrows(CustomException.class,
+                () -> ibanService.updateIban(1L, validIbanRequest, "admin", null, 3L));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        assertTrue(exception.getMessage().contains("Utilizatorul nu a fost găsit"));
+        verify(ibanRepository, never()).updateIfUnchanged(any(), any(), any(), any(), anyInt(), any(), any(), any());
     }
 
     @Test
     @DisplayName("Given all IBans, when getAllIbans is called, then returns list of IBAN responses")
     void getAllIbans_ReturnsListOfIbanResponses() {
         // Given
-        List<Iban> ibans = Arrays.asList(iban);
-        when(ibanRepository.findAll()).thenReturn(ibans);
+        when(ibanRepository.findAllResponses()).thenReturn(List.of(ibanResponse(1L)));
 
         // When
         List<IbanResponse> responses = ibanService.getAllIbans();
@@ -213,23 +294,26 @@ class IbanServiceImplTest {
     }
 
     @Test
-    @DisplayName("Given valid IBAN ID, when deleting IBAN, then repository delete is called")
+    @DisplayName("Given valid IBAN ID, when deleting IBAN, then one DELETE by id is issued")
     void deleteIban_WithValidId_CallsRepositoryDelete() {
         // Given
-        when(ibanRepository.findById(1L)).thenReturn(Optional.of(iban));
+        when(ibanRepository.findVersionById(1L)).thenReturn(Optional.of(versionView(2025, 0L)));
+        when(ibanRepository.deleteByIds(List.of(1L))).thenReturn(1);
 
         // When
         ibanService.deleteIban(1L);
 
         // Then
-        verify(ibanRepository).delete(iban);
+        verify(ibanRepository).deleteByIds(List.of(1L));
+        verify(ibanRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(new IbanChangedEvent(Set.of(2025)));
     }
 
     @Test
     @DisplayName("Given invalid IBAN ID, when deleting IBAN, then throws exception")
     void deleteIban_WithInvalidId_ThrowsException() {
         // Given
-        when(ibanRepository.findById(999L)).thenReturn(Optional.empty());
+        when(ibanRepository.findVersionById(999L)).thenReturn(Optional.empty());
 
         // When & Then
         CustomException exception = assertThrows(CustomException.class,
@@ -237,4 +321,175 @@ class IbanServiceImplTest {
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
         assertTrue(exception.getMessage().contains("IBAN-ul nu a fost găsit"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Given more rows than the page size, when getting a page, then returns a next cursor")
+    void getIbansPage_WithMoreRows_ReturnsNextCursor() {
+        // Given
+        when(ibanRepository.findPageAfter(eq(0L), any())).thenReturn(Arrays.asList(ibanResponse(1L), ibanResponse(2L)));
+
+        // When
+        IbanPageResponse page = ibanService.getIbansPage(null, 1);
+
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertEquals(1L, page.getItems().get(0).getId());
+        assertEquals(1L, PageCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("Given the last page, when getting a page, then next cursor is null")
+    void getIbansPage_OnLastPage_ReturnsNullCursor() {
+        // Given
+        when(ibanRepository.findPageAfter(eq(1L), any())).thenReturn(List.of(ibanResponse(2L)));
+
+        // When
+        IbanPageResponse page = ibanService.getIbansPage(PageCursor.encode(1L), 10);
+
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Given a tampered cursor, when getting a page, then throws bad request")
+    void getIbansPage_WithInvalidCursor_ThrowsException() {
+        // When & Then
+        CustomException exception = assertThrows(CustomException.class,
+                () -> ibanService.getIbansPage("not-a-cursor", 10));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    @DisplayName("Given only an eco code, when filtering, then the dynamic query is used instead of loading everything")
+    void getIbansByFilters_WithEcoCodeOnly_UsesSpecificationQuery() {
+        // Given
+        IbanFilterRequest filter = new IbanFilterRequest();
+        filter.setEcoCode("111110");
+        when(ibanRepository.findResponses(any(), eq(0L), anyInt())).thenReturn(List.of(ibanResponse(1L)));
+
+        // When
+        List<IbanResponse> responses = ibanService.getIbansByFilters(filter);
+
+        // Then
+        assertEquals(1, responses.size());
+        verify(ibanRepository, never()).findAllResponses();
+        verify(ibanRepository, never()).findByNaturalId(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Given a filter matching more than the cap, when filtering, then throws bad request instead of truncating")
+    void getIbansByFilters_OverTheCap_ThrowsBadRequest() {
+        // Given
+        IbanFilterRequest filter = new IbanFilterRequest();
+        filter.setYear(2025);
+        List<IbanResponse> overCap = Collections.nCopies(10_001, ibanResponse(1L));
+        when(ibanRepository.findResponses(any(), eq(0L), eq(10_001))).thenReturn(overCap);
+
+        // When & Then
+        CustomException exception = assertThrows(CustomException.class,
+                () -> ibanService.getIbansByFilters(filter));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        assertTrue(exception.getMessage().contains("/api/ibans/filter/page"));
+    }
+
+    @Test
+    @DisplayName("Given a filter matching exactly the cap, when filtering, then all rows are returned")
+    void getIbansByFilters_AtTheCap_ReturnsAllRows() {
+        // Given
+        IbanFilterRequest filter = new IbanFilterRequest();
+        filter.setYear(2025);
+        List<IbanResponse> atCap = Collections.nCopies(10_000, ibanResponse(1L));
+        when(ibanRepository.findResponses(any(), eq(0L), eq(10_001))).thenReturn(atCap);
+
+        // When
+        List<IbanResponse> responses = ibanService.getIbansByFilters(filter);
+
+        // Then
+        assertEquals(10_000, responses.size());
+    }
+
+    @Test
+    @DisplayName("Given year, eco code and locality only, when filtering, then the natural id lookup is used")
+    void getIbansByFilters_WithFullNaturalKey_UsesNaturalIdLookup() {
+        // Given
+        IbanFilterRequest filter = new IbanFilterRequest();
+        filter.setYear(2025);
+        filter.setEcoCode("111110");
+        filter.setLocalityCode("0101");
+        when(ibanRepository.findByNaturalId(Year.of(2025), "111110", "0101")).thenReturn(Optional.of(iban));
+
+        // When
+        List<IbanResponse> responses = ibanService.getIbansByFilters(filter);
+
+        // Then
+        assertEquals(1, responses.size());
+        verify(ibanRepository, never()).findResponses(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Given an inverted year range, when filtering, then throws bad request")
+    void getIbansByFilters_WithInvertedYearRange_ThrowsException() {
+        // Given
+        IbanFilterRequest filter = new IbanFilterRequest();
+        filter.setYearFrom(2026);
+        filter.setYearTo(2024);
+
+        // When & Then
+        CustomException exception = assertThrows(CustomException.class,
+                () -> ibanService.getIbansByFilters(filter));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verifyNoInteractions(ibanRepository);
+    }
+
+    @Test
+    @DisplayName("Given an output stream, when exporting IBANs, then rows are streamed and the cursor is closed")
+    void exportAllIbansAsCsv_StreamsRowsAndClosesCursor() {
+        // Given
+        boolean[] closed = {false};
+        Stream<IbanResponse> rows = Stream.of(ibanResponse(1L)).onClose(() -> closed[0] = true);
+        when(ibanRepository.streamAllResponses()).thenReturn(rows);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        ibanService.exportAllIbansAsCsv(out);
+
+        // Then
+        verify(csvExporter).writeIbansCsv(rows, out);
+        verify(ibanRepository, never()).findAll();
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    @DisplayName("Given cached reference data, when listing eco codes, then the snapshot is returned")
+    void getAllEcoCodes_ReturnsSnapshotList() {
+        // Given
+        List<EcoCodeResponse> ecoCodes = List.of(new EcoCodeResponse("111110", "Impozit pe venitul reținut din salariu"));
+        when(referenceDataCache.getEcoCodes()).thenReturn(ecoCodes);
+
+        // When
+        List<EcoCodeResponse> responses = ibanService.getAllEcoCodes();
+
+        // Then
+        assertSame(ecoCodes, responses);
+    }
+
+    private static IbanRepository.IbanVersionView versionView(Integer year, Long version) {
+        return new IbanRepository.IbanVersionView() {
+            @Override
+            public Integer getYearValue() {
+                return year;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private IbanResponse ibanResponse(Long id) {
+        return new IbanResponse(id, "MD24TRPAAA14511001030000", 2025, "111110",
+                "Impozit pe venitul reținut din salariu", "0100", "Chișinău", "0100", "Chișinău", 0L);
+    }
+}
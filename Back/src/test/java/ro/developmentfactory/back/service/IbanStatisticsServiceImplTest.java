@@ -0,0 +1,118 @@
+package ro.developmentfactory.back.service;
+
+import iban.controller.dto.response.IbanCountResponse;
+import iban.exception.CustomException;
+import iban.repository.IbanCountDimension;
+import iban.repository.IbanRepository;
+import iban.service.IbanChangedEvent;
+import iban.service.IbanStatisticsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.Year;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IbanStatisticsServiceImplTest {
+
+    private static final Set<IbanCountDimension> RAION_YEAR =
+            EnumSet.of(IbanCountDimension.RAION, IbanCountDimension.YEAR);
+
+    @Mock
+    private IbanRepository ibanRepository;
+
+    @InjectMocks
+    private IbanStatisticsServiceImpl statisticsService;
+
+    private int currentYear;
+
+    @BeforeEach
+    void setUp() {
+        currentYear = Year.now().getValue();
+        lenient().when(ibanRepository.countBy(RAION_YEAR, null, currentYear - 1)).thenReturn(List.of(
+                new IbanCountResponse("0100", "Chișinău", currentYear - 2, null, 4L),
+                new IbanCountResponse("0100", "Chișinău", currentYear - 1, null, 5L)));
+        lenient().when(ibanRepository.countBy(RAION_YEAR, currentYear, null)).thenReturn(List.of(
+                new IbanCountResponse("0100", "Chișinău", currentYear, null, 2L)));
+    }
+
+    @Test
+    @DisplayName("Given closed years were counted, when counting again, then only the open years are queried")
+    void countIbans_ClosedYears_AreCached() {
+        // When
+        statisticsService.countIbans(List.of("raion", "year"), null, null);
+        List<IbanCountResponse> result = statisticsService.countIbans(List.of("raion", "year"), null, null);
+
+        // Then
+        assertEquals(3, result.size());
+        assertEquals(currentYear - 2, result.get(0).getYear());
+        verify(ibanRepository, times(1)).countBy(RAION_YEAR, null, currentYear - 1);
+        verify(ibanRepository, times(2)).countBy(RAION_YEAR, currentYear, null);
+    }
+
+    @Test
+    @DisplayName("Given a write to a closed year, when counting, then the cached closed years are recomputed")
+    void countIbans_AfterClosedYearWrite_RecomputesClosedYears() {
+        // Given
+        statisticsService.countIbans(List.of("raion", "year"), null, null);
+        statisticsService.onIbanChanged(new IbanChangedEvent(Set.of(currentYear)));
+        statisticsService.countIbans(List.of("raion", "year"), null, null);
+
+        // When
+        statisticsService.onIbanChanged(new IbanChangedEvent(Set.of(currentYear - 1)));
+        statisticsService.countIbans(List.of("raion", "year"), null, null);
+
+        // Then
+        verify(ibanRepository, times(2)).countBy(RAION_YEAR, null, currentYear - 1);
+    }
+
+    @Test
+    @DisplayName("Given grouping without year, when counting, then closed and open years are summed per raion")
+    void countIbans_WithoutYear_SumsAcrossYears() {
+        // When
+        List<IbanCountResponse> result = statisticsService.countIbans(List.of("raion"), null, null);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals("0100", result.get(0).getRaionCode());
+        assertNull(result.get(0).getYear());
+        assertEquals(11L, result.get(0).getCount());
+    }
+
+    @Test
+    @DisplayName("Given a range of closed years only, when counting, then the open years are not queried")
+    void countIbans_ClosedRange_SkipsOpenYears() {
+        // When
+        List<IbanCountResponse> result = statisticsService.countIbans(
+                List.of("raion", "year"), currentYear - 1, currentYear - 1);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(5L, result.get(0).getCount());
+        verify(ibanRepository, never()).countBy(any(), eq(currentYear), isNull());
+    }
+
+    @Test
+    @DisplayName("Given an unknown grouping, when counting, then throws bad request")
+    void countIbans_UnknownDimension_ThrowsBadRequest() {
+        // When & Then
+        CustomException exception = assertThrows(CustomException.class,
+                () -> statisticsService.countIbans(List.of("month"), null, null));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verifyNoInteractions(ibanRepository);
+    }
+}
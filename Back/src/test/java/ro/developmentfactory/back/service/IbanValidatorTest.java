@@ -17,7 +17,7 @@ class IbanValidatorTest {
     void validate_WithValidIban_ValidationPasses() {
         // Given
         IbanRequest request = new IbanRequest();
-        request.setIbanCode("MD24TRPAAA14511001030000");
+        request.setIbanCode("MD49TRPAAA14511001030000");
         request.setYear(2025);
         request.setEcoCode("111110");
         request.setLocalityCode("0100");
@@ -65,7 +65,7 @@ class IbanValidatorTest {
     void validate_WithLowercaseLetters_ConvertsToUppercase() {
         // Given
         IbanRequest request = new IbanRequest();
-        request.setIbanCode("md24trpAAA14511001030000");  // Lowercase letters
+        request.setIbanCode("md49trpAAA14511001030000");  // Lowercase letters
         request.setYear(2025);
         request.setEcoCode("111110");
         request.setLocalityCode("0100");
@@ -74,7 +74,7 @@ class IbanValidatorTest {
         validator.validate(request);
 
         // Then
-        assertEquals("MD24TRPAAA14511001030000", request.getIbanCode());
+        assertEquals("MD49TRPAAA14511001030000", request.getIbanCode());
     }
     @Test
     @DisplayName("Given IBAN with non-alphanumeric characters, when validating, then throws validation exception")
@@ -143,4 +143,48 @@ class IbanValidatorTest {
 
         assertTrue(exception.getMessage().contains("cannot be empty"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Given IBAN with wrong check digits, when validating, then throws validation exception")
+    void validate_WithWrongCheckDigits_ThrowsValidationException() {
+        // Given
+        IbanRequest request = new IbanRequest();
+        request.setIbanCode("MD24TRPAAA14511001030000");  // Check digits should be 49
+        request.setYear(2025);
+        request.setEcoCode("111110");
+        request.setLocalityCode("0100");
+
+        // When & Then
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> validator.validate(request));
+
+        assertTrue(exception.getMessage().contains("check digits"));
+    }
+
+    @Test
+    @DisplayName("Given IBANs with several defects, when checking, then every defect is set in the bitmask")
+    void check_ReturnsErrorBitmask() {
+        assertEquals(IbanValidator.VALID, IbanValidator.check("MD49TRPAAA14511001030000"));
+        assertEquals(IbanValidator.ERR_EMPTY, IbanValidator.check(""));
+        assertEquals(IbanValidator.ERR_CHECKSUM, IbanValidator.check("MD24TRPAAA14511001030000"));
+        assertEquals(IbanValidator.ERR_LENGTH | IbanValidator.ERR_PREFIX,
+                IbanValidator.check("DE89370400440532013000"));
+        assertEquals(IbanValidator.ERR_CHARSET | IbanValidator.ERR_TRAILING_DIGITS,
+                IbanValidator.check("MD24TRPAAA14511001030$%@"));
+    }
+
+    @Test
+    @DisplayName("Given an uppercase IBAN, when validating, then the request value is kept as is")
+    void validate_WithUppercaseIban_KeepsSameInstance() {
+        // Given
+        String ibanCode = "MD49TRPAAA14511001030000";
+        IbanRequest request = new IbanRequest();
+        request.setIbanCode(ibanCode);
+
+        // When
+        validator.validate(request);
+
+        // Then
+        assertSame(ibanCode, request.getIbanCode());
+    }
+}
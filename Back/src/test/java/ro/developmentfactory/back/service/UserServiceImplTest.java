@@ -10,6 +10,7 @@ import iban.repository.UserRepository;
 import iban.repository.entity.Locality;
 import iban.repository.entity.Role;
 import iban.repository.entity.User;
+import iban.security.TokenVersionRegistry;
 import iban.service.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +21,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 
@@ -42,6 +45,9 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -197,6 +203,90 @@ class UserServiceImplTest {
 
         // Then
         verify(userRepository).delete(mockUser);
+        verify(tokenVersionRegistry).revoke(1L);
+    }
+
+    @Test
+    @DisplayName("Given role change, when updating user, then token version is bumped and registry updated")
+    void updateUser_WithRoleChange_BumpsTokenVersion() {
+        // Given
+        Role adminRole = new Role(1L, Role.ERole.ROLE_ADMIN);
+        validUserRequest.setPassword(null);
+        validUserRequest.setRoles(Set.of("ROLE_ADMIN"));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser));
+        when(roleRepository.findByName(Role.ERole.ROLE_ADMIN)).thenReturn(Optional.of(adminRole));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        UserResponse response = userService.updateUser(1L, validUserRequest);
+
+        // Then
+        assertTrue(response.getRoles().contains("ROLE_ADMIN"));
+        assertEquals(1, mockUser.getTokenVersion());
+        verify(tokenVersionRegistry).update(1L, 1);
+    }
+
+    @Test
+    @DisplayName("Given a role change in a transaction, when it rolls back, then the registry keeps the old version")
+    void updateUser_InRolledBackTransaction_LeavesRegistryUntouched() {
+        // Given
+        Role adminRole = new Role(1L, Role.ERole.ROLE_ADMIN);
+        validUserRequest.setPassword(null);
+        validUserRequest.setRoles(Set.of("ROLE_ADMIN"));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser));
+        when(roleRepository.findByName(Role.ERole.ROLE_ADMIN)).thenReturn(Optional.of(adminRole));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            userService.updateUser(1L, validUserRequest);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            verifyNoInteractions(tokenVersionRegistry);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Given a delete in a transaction, when it commits, then the user is revoked only after the commit")
+    void deleteUser_InTransaction_RevokesAfterCommit() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            userService.deleteUser(1L);
+
+            // Then
+            verifyNoInteractions(tokenVersionRegistry);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(tokenVersionRegistry).revoke(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Given only profile fields change, when updating user, then existing tokens stay valid")
+    void updateUser_WithProfileChangeOnly_KeepsTokenVersion() {
+        // Given
+        validUserRequest.setPassword(null);
+        validUserRequest.setFullName("Nume Nou");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser));
+        when(roleRepository.findByName(Role.ERole.ROLE_OPERATOR)).thenReturn(Optional.of(operatorRole));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        userService.updateUser(1L, validUserRequest);
+
+        // Then
+        assertEquals(0, mockUser.getTokenVersion());
+        verifyNoInteractions(tokenVersionRegistry);
     }
 
     @Test